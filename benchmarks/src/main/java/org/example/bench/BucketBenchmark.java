@@ -0,0 +1,68 @@
+package org.example.bench;
+
+import org.example.DictionaryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CHAINED lookups with and without move-to-front, for uniform and Zipf (skewed) lookups.
+ * A high maxLoadFactor gives long chains (several words per bucket on average, trees for the
+ * longest ones), which is where the order inside a chain matters.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class BucketBenchmark {
+
+    public enum Workload { UNIFORM, SKEWED }
+
+    @Param({"100000"})
+    public int vocabulary;
+
+    @Param({"UNIFORM", "SKEWED"})
+    public Workload workload;
+
+    @Param({"0.75", "4.0"})
+    public double maxLoadFactor;
+
+    @Param({"false", "true"})
+    public boolean moveToFront;
+
+    private static final int SAMPLE = 1 << 16;
+
+    private String[] hits;
+    private DictionaryBuilder dictionary;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void fillDictionary() {
+        ZipfCorpus corpus = new ZipfCorpus(vocabulary, workload == Workload.SKEWED ? 1.0 : 0.0, 42);
+        // exponent 0: every word is equally likely
+        hits = corpus.sample(SAMPLE);
+        dictionary = new DictionaryBuilder(16, maxLoadFactor, DictionaryBuilder.Backend.CHAINED);
+        for (int i = 0; i < corpus.vocabularySize(); i++)
+            dictionary.addWord(corpus.word(i));
+        dictionary.setMoveToFront(moveToFront);
+        next = 0;
+    }
+
+    @Benchmark
+    public int getFrequencyHit() {
+        return dictionary.getFrequency(hits[next++ & (SAMPLE - 1)]);
+    }
+
+    @Benchmark
+    public void addWord() {
+        dictionary.addWord(hits[next++ & (SAMPLE - 1)]);
+    }
+}
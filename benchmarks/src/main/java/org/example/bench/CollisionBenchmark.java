@@ -0,0 +1,98 @@
+package org.example.bench;
+
+import org.example.DictionaryBuilder;
+import org.example.HashStrategy;
+import org.example.TableStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adding words crafted to have the same String.hashCode ("c0" and "an" collide, so do all words
+ * made of such blocks): with the polynomial hash every word lands in one chain / probe sequence
+ * and each add compares with all the words before it, the seeded hash spreads them like any other words.
+ * main() prints the longest chain of each strategy:
+ * java -cp target/benchmarks.jar org.example.bench.CollisionBenchmark [words]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CollisionBenchmark {
+
+    public enum Strategy { POLYNOMIAL, SEEDED }
+
+    @Param({"4096", "16384"})
+    public int words;
+
+    @Param({"POLYNOMIAL", "SEEDED"})
+    public Strategy strategy;
+
+    @Param({"CHAINED", "OPEN_ADDRESSING"})
+    public DictionaryBuilder.Backend backend;
+
+    private String[] colliding;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        colliding = collidingWords(words);
+    }
+
+    @Benchmark
+    public DictionaryBuilder addCollidingWords() {
+        DictionaryBuilder db = newDictionary(words, backend, strategy);
+        for (String w : colliding)
+            db.addWord(w);
+        return db;
+    }
+
+    static DictionaryBuilder newDictionary(int words, DictionaryBuilder.Backend backend, Strategy strategy) {
+        HashStrategy hash = strategy == Strategy.POLYNOMIAL ? HashStrategy.polynomial() : HashStrategy.randomSeeded();
+        return new DictionaryBuilder(words, DictionaryBuilder.DEFAULT_MAX_LOAD_FACTOR, backend, hash);
+    }
+
+    // n different words with the same String.hashCode (99 * 31 + '0' == 97 * 31 + 'n')
+    static String[] collidingWords(int n) {
+        int blocks = 32 - Integer.numberOfLeadingZeros(Math.max(1, n - 1));
+        String[] result = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder sb = new StringBuilder(2 * blocks);
+            for (int b = 0; b < blocks; b++)
+                sb.append((i >>> b & 1) == 0 ? "c0" : "an");
+            result[i] = sb.toString();
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 16384;
+        String[] colliding = collidingWords(n);
+        for (DictionaryBuilder.Backend backend : new DictionaryBuilder.Backend[] {DictionaryBuilder.Backend.CHAINED, DictionaryBuilder.Backend.OPEN_ADDRESSING}) {
+            for (Strategy strategy : Strategy.values()) {
+                long start = System.nanoTime();
+                try (DictionaryBuilder db = newDictionary(n, backend, strategy)) {
+                    for (String w : colliding)
+                        db.addWord(w);
+                    long millis = (System.nanoTime() - start) / 1_000_000;
+                    TableStats stats = db.tableStats();
+                    System.out.printf("%-16s %-10s %,7d words  longest chain %,7d  average %5.2f  %,6d ms%n",
+                            backend, strategy, db.getUniqueWords(), stats.getMaxChainLength(),
+                            stats.getAverageChainLength(), millis);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.bench;
+
+import org.example.ConcurrentDictionaryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of one ConcurrentDictionaryBuilder shared by all benchmark threads:
+ * three addWord for every getFrequency over a fixed vocabulary.
+ * Four threads by default; run with -t 1,2,4,... to see how it scales with the thread count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@Threads(4)
+public class ConcurrentDictionaryBenchmark {
+
+    private static final int VOCABULARY = 5_000;
+
+    // stripes of the dictionary (0 = the default, 4 per core; 1 = one lock for everything)
+    @Param({"0", "1"})
+    public int concurrencyLevel;
+
+    private String[] words;
+    private ConcurrentDictionaryBuilder dictionary;
+
+    // position of one benchmark thread in the word list
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void createWords() {
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++)
+            words[i] = "word" + i;
+    }
+
+    @Setup(Level.Iteration)
+    public void createDictionary() {
+        dictionary = concurrencyLevel == 0
+                ? new ConcurrentDictionaryBuilder(VOCABULARY)
+                : new ConcurrentDictionaryBuilder(VOCABULARY, concurrencyLevel);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeDictionary() {
+        dictionary.close();
+    }
+
+    @Benchmark
+    public int readsAndAdds(Cursor cursor) {
+        int i = cursor.next++;
+        String w = words[(i * 31 & Integer.MAX_VALUE) % VOCABULARY];
+        if ((i & 3) == 0)
+            return dictionary.getFrequency(w);
+        dictionary.addWord(w);
+        return 0;
+    }
+}
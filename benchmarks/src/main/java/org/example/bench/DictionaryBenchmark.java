@@ -0,0 +1,106 @@
+package org.example.bench;
+
+import org.example.DictionaryBuilder;
+import org.example.DictionaryEntryNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths of DictionaryBuilder over a Zipf corpus, for every vocabulary size and backend.
+ * The dictionary is filled with the whole vocabulary before each iteration.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class DictionaryBenchmark {
+
+    // distinct words
+    @Param({"1000", "100000", "1000000"})
+    public int vocabulary;
+
+    @Param({"CHAINED", "OPEN_ADDRESSING", "COMPACT", "OFF_HEAP"})
+    public DictionaryBuilder.Backend backend;
+
+    private static final int SAMPLE = 1 << 16;
+    // power of two, so the next word is words[i & mask]
+
+    private ZipfCorpus corpus;
+    private String[] hits;
+    // Zipf sample of present words
+    private String[] misses;
+    // words that are never added
+    private DictionaryBuilder dictionary;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createCorpus() {
+        corpus = new ZipfCorpus(vocabulary, 1.0, 42);
+        hits = corpus.sample(SAMPLE);
+        misses = new String[SAMPLE];
+        for (int i = 0; i < SAMPLE; i++)
+            misses[i] = "miss" + i;
+        // contains digits, the corpus only has letters
+    }
+
+    @Setup(Level.Iteration)
+    public void fillDictionary() {
+        dictionary = new DictionaryBuilder(vocabulary, backend);
+        for (int i = 0; i < corpus.vocabularySize(); i++)
+            dictionary.addWord(corpus.word(i));
+        next = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeDictionary() {
+        dictionary.close();
+    }
+
+    private String nextHit() {
+        return hits[next++ & (SAMPLE - 1)];
+    }
+
+    @Benchmark
+    public void addWord() {
+        dictionary.addWord(nextHit());
+    }
+
+    @Benchmark
+    public int getFrequencyHit() {
+        return dictionary.getFrequency(nextHit());
+    }
+
+    @Benchmark
+    public int getFrequencyMiss() {
+        return dictionary.getFrequency(misses[next++ & (SAMPLE - 1)]);
+    }
+
+    // remove a present word and add it back, so the dictionary keeps its size
+    @Benchmark
+    public void removeWordAndAddBack() throws DictionaryEntryNotFoundException {
+        String w = nextHit();
+        dictionary.removeWord(w);
+        dictionary.addWord(w);
+    }
+
+    // listing after one new word, so the sorted index has a pending change to merge
+    @Benchmark
+    public void getAllWords(Blackhole bh) throws DictionaryEntryNotFoundException {
+        dictionary.addWord("zzextra");
+        ArrayList<String> words = dictionary.getAllWords();
+        bh.consume(words);
+        dictionary.removeWord("zzextra");
+    }
+}
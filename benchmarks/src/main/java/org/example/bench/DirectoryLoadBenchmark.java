@@ -0,0 +1,96 @@
+package org.example.bench;
+
+import org.example.DictionaryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A directory of Zipf shards (plain or gzip-compressed): ingestFile on every shard in turn
+ * against loadFromDirectory, which reads and tokenizes the shards on worker threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DirectoryLoadBenchmark {
+
+    @Param({"16", "256"})
+    public int shards;
+
+    @Param({"false", "true"})
+    public boolean compressed;
+
+    @Param({"32"})
+    public int megabytes;
+
+    private Path dir;
+    private List<Path> files;
+
+    @Setup(Level.Trial)
+    public void writeShards() throws IOException {
+        dir = Files.createTempDirectory("zipf-shards");
+        ZipfCorpus corpus = new ZipfCorpus(100_000, 1.0, 7);
+        long shardBytes = megabytes * 1024L * 1024L / shards;
+        for (int i = 0; i < shards; i++) {
+            Path text = dir.resolve(String.format("shard%04d.txt", i));
+            corpus.writeText(text, shardBytes);
+            if (compressed) {
+                try (InputStream in = Files.newInputStream(text);
+                     OutputStream out = new GZIPOutputStream(Files.newOutputStream(dir.resolve(text.getFileName() + ".gz")))) {
+                    in.transferTo(out);
+                }
+                Files.delete(text);
+            }
+        }
+        try (Stream<Path> paths = Files.list(dir)) {
+            files = paths.sorted().toList();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteShards() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList())
+                Files.delete(p);
+        }
+    }
+
+    @Benchmark
+    public DictionaryBuilder ingestEachFile() throws IOException {
+        DictionaryBuilder db = new DictionaryBuilder(100_000);
+        for (Path file : files)
+            db.ingestFile(file.toString());
+        return db;
+    }
+
+    @Benchmark
+    public DictionaryBuilder loadFromDirectory() throws IOException {
+        DictionaryBuilder db = new DictionaryBuilder(100_000);
+        db.loadFromDirectory(dir, "*");
+        return db;
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.bench;
+
+import org.example.DictionaryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a whole text file written from a Zipf corpus: the Scanner loader (loadFromFile)
+ * against the FileChannel tokenizer (ingestFile) and the parallel loader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoadBenchmark {
+
+    @Param({"1000", "100000"})
+    public int vocabulary;
+
+    @Param({"16"})
+    public int megabytes;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        file = Files.createTempFile("zipf", ".txt");
+        new ZipfCorpus(vocabulary, 1.0, 7).writeText(file, megabytes * 1024L * 1024L);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public DictionaryBuilder loadFromFile() throws IOException {
+        DictionaryBuilder db = new DictionaryBuilder(vocabulary);
+        db.loadFromFile(file.toString());
+        return db;
+    }
+
+    @Benchmark
+    public DictionaryBuilder ingestFile() throws IOException {
+        DictionaryBuilder db = new DictionaryBuilder(vocabulary);
+        db.ingestFile(file.toString());
+        return db;
+    }
+
+    @Benchmark
+    public DictionaryBuilder ingestFileParallel() throws IOException {
+        DictionaryBuilder db = new DictionaryBuilder(vocabulary);
+        db.ingestFileParallel(file.toString(), Runtime.getRuntime().availableProcessors());
+        return db;
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.bench;
+
+import org.example.DictionaryBuilder;
+
+/**
+ * Heap bytes per unique word of each backend: the heap in use after a full GC, with and without
+ * a dictionary holding a Zipf vocabulary (the input words themselves are not counted).
+ * Run: java -cp target/benchmarks.jar org.example.bench.MemoryFootprint [vocabulary]
+ */
+public final class MemoryFootprint {
+
+    private MemoryFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int vocabulary = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        ZipfCorpus corpus = new ZipfCorpus(vocabulary, 1.0, 42);
+        String[] words = corpus.sample(4 * vocabulary);
+        // a text-like stream: frequent words repeat, the tail appears once or not at all
+
+        for (DictionaryBuilder.Backend backend : DictionaryBuilder.Backend.values()) {
+            long before = usedHeap();
+            DictionaryBuilder dictionary = new DictionaryBuilder(16, backend);
+            dictionary.addAll(words);
+            long after = usedHeap();
+            System.out.printf("%-16s %,9d unique words  %,12d bytes  %6.1f bytes/word  (capacity %,d)%n",
+                    backend, dictionary.getUniqueWords(), after - before,
+                    (after - before) * 1.0 / dictionary.getUniqueWords(), dictionary.capacity());
+            dictionary.close();
+            // OFF_HEAP keeps its words in native memory, which the heap numbers do not include
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
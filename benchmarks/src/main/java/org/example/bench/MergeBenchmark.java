@@ -0,0 +1,91 @@
+package org.example.bench;
+
+import org.example.DictionaryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Combining two shard dictionaries: mergeFrom against addWord for every occurrence
+ * (getAllWords + getFrequency, what callers had to do before), and intersect.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class MergeBenchmark {
+
+    @Param({"200000"})
+    public int vocabulary;
+
+    @Param({"CHAINED", "COMPACT"})
+    public DictionaryBuilder.Backend backend;
+
+    private static final int TOKENS = 1_000_000;
+
+    private DictionaryBuilder left;
+    private DictionaryBuilder right;
+
+    @Setup(Level.Trial)
+    public void fillShards() {
+        left = shard(1, vocabulary);
+        right = shard(2, vocabulary);
+    }
+
+    private DictionaryBuilder shard(long seed, int estimatedEntries) {
+        ZipfCorpus corpus = new ZipfCorpus(vocabulary, 1.0, seed);
+        DictionaryBuilder db = new DictionaryBuilder(estimatedEntries, backend);
+        for (String word : corpus.sample(TOKENS))
+            db.addWord(word);
+        return db;
+    }
+
+    private DictionaryBuilder copyOfLeft() {
+        DictionaryBuilder copy = new DictionaryBuilder(vocabulary, backend);
+        copy.mergeFrom(left);
+        return copy;
+    }
+
+    @Benchmark
+    public DictionaryBuilder copyOnly() {
+        return copyOfLeft();
+    }
+
+    @Benchmark
+    public DictionaryBuilder mergeFrom() {
+        DictionaryBuilder db = copyOfLeft();
+        db.mergeFrom(right);
+        return db;
+    }
+
+    @Benchmark
+    public DictionaryBuilder addWordByWord() {
+        DictionaryBuilder db = copyOfLeft();
+        for (String word : right.getAllWords()) {
+            int count = right.getFrequency(word);
+            for (int i = 0; i < count; i++)
+                db.addWord(word);
+        }
+        return db;
+    }
+
+    @Benchmark
+    public DictionaryBuilder intersect() {
+        DictionaryBuilder db = copyOfLeft();
+        db.intersect(right);
+        return db;
+    }
+}
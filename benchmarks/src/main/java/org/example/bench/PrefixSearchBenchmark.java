@@ -0,0 +1,92 @@
+package org.example.bench;
+
+import org.example.DictionaryBuilder;
+import org.example.DictionaryEntry;
+import org.example.DictionaryEntryNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prefix search through the sorted index against a linear scan of getAllWords() with startsWith,
+ * and the same search right after a word was added and removed (pending changes in the index).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class PrefixSearchBenchmark {
+
+    @Param({"200000"})
+    public int vocabulary;
+
+    private static final int PREFIXES = 1 << 11;
+
+    private DictionaryBuilder dictionary;
+    private String[] prefixes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void fillDictionary() {
+        Random random = new Random(9);
+        dictionary = new DictionaryBuilder(vocabulary);
+        for (int i = 0; i < vocabulary; i++) {
+            StringBuilder sb = new StringBuilder();
+            int len = 3 + random.nextInt(8);
+            for (int j = 0; j < len; j++)
+                sb.append((char) ('a' + random.nextInt(26)));
+            dictionary.addWord(sb.toString());
+        }
+        prefixes = new String[PREFIXES];
+        for (int i = 0; i < PREFIXES; i++)
+            prefixes[i] = "" + (char) ('a' + random.nextInt(26)) + (char) ('a' + random.nextInt(26)) + (char) ('a' + random.nextInt(26));
+        dictionary.getAllWords();
+        // builds the sorted index
+    }
+
+    private String nextPrefix() {
+        return prefixes[next++ & (PREFIXES - 1)];
+    }
+
+    @Benchmark
+    public List<DictionaryEntry> index() {
+        return dictionary.getWordsWithPrefix(nextPrefix());
+    }
+
+    @Benchmark
+    public List<String> linearScan() {
+        String prefix = nextPrefix();
+        List<String> result = new ArrayList<>();
+        for (String w : dictionary.getAllWords()) {
+            if (w.startsWith(prefix))
+                result.add(w);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<DictionaryEntry> indexAfterChange() throws DictionaryEntryNotFoundException {
+        String prefix = nextPrefix();
+        String word = prefix + "zz9";
+        dictionary.addWord(word);
+        List<DictionaryEntry> found = dictionary.getWordsWithPrefix(prefix);
+        dictionary.removeWord(word);
+        return found;
+    }
+}
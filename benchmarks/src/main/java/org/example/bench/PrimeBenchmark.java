@@ -0,0 +1,42 @@
+package org.example.bench;
+
+import org.example.PrimeUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Table sizing: PrimeUtils.next4kPlus3Prime for small, medium and large requests,
+ * the long version for sizes beyond an int, and the resize ladder.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class PrimeBenchmark {
+
+    @Param({"1000", "1000000", "1000000000"})
+    public int n;
+
+    @Benchmark
+    public int next4kPlus3Prime() {
+        return PrimeUtils.next4kPlus3Prime(n);
+    }
+
+    // n * 10^6, up to 10^15
+    @Benchmark
+    public long next4kPlus3PrimeLong() {
+        return PrimeUtils.next4kPlus3Prime(n * 1_000_000L);
+    }
+
+    @Benchmark
+    public int ladder4kPlus3Prime() {
+        return PrimeUtils.ladder4kPlus3Prime(n);
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Synthetic corpus: a vocabulary of distinct lower-case words and a Zipf distribution
+ * over it (rank r is drawn with probability proportional to 1 / r^exponent),
+ * the usual shape of word frequencies in natural text.
+ * Everything is generated from a fixed seed, so runs are comparable.
+ */
+public final class ZipfCorpus {
+
+    private final String[] vocabulary;
+    private final double[] cdf;
+    private final Random random;
+
+    public ZipfCorpus(int vocabularySize, double exponent, long seed) {
+        if (vocabularySize < 1)
+            throw new IllegalArgumentException("vocabularySize must be at least 1");
+        this.random = new Random(seed);
+        this.vocabulary = new String[vocabularySize];
+        for (int i = 0; i < vocabularySize; i++)
+            vocabulary[i] = word(i, random);
+        this.cdf = new double[vocabularySize];
+        double sum = 0;
+        for (int i = 0; i < vocabularySize; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < vocabularySize; i++)
+            cdf[i] /= sum;
+    }
+
+    // distinct word for index i: base-25 digits of i (a..y), 'z', then a few random letters
+    // (3..10 chars). The digits never contain 'z', so the first 'z' ends them and two indexes
+    // cannot give the same word, whatever letters follow
+    private static String word(int i, Random random) {
+        StringBuilder sb = new StringBuilder();
+        int n = i;
+        do {
+            sb.append((char) ('a' + n % 25));
+            n /= 25;
+        } while (n > 0);
+        sb.append('z');
+        int extra = Math.max(0, 3 + random.nextInt(8) - sb.length());
+        for (int k = 0; k < extra; k++)
+            sb.append((char) ('a' + random.nextInt(26)));
+        return sb.toString();
+    }
+
+    public int vocabularySize() {
+        return vocabulary.length;
+    }
+
+    public String word(int rank) {
+        return vocabulary[rank];
+    }
+
+    // next word drawn from the Zipf distribution
+    public String next() {
+        double u = random.nextDouble();
+        int lo = 0, hi = cdf.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cdf[mid] < u)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return vocabulary[lo];
+    }
+
+    // n words drawn from the distribution
+    public String[] sample(int n) {
+        String[] words = new String[n];
+        for (int i = 0; i < n; i++)
+            words[i] = next();
+        return words;
+    }
+
+    // write about `bytes` bytes of text (words separated by spaces, punctuation and new lines)
+    public void writeText(Path file, long bytes) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            long written = 0;
+            int onLine = 0;
+            while (written < bytes) {
+                String w = next();
+                out.write(w);
+                written += w.length();
+                if (++onLine == 12) {
+                    out.write(".\n");
+                    written += 2;
+                    onLine = 0;
+                } else {
+                    out.write(' ');
+                    written++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package org.example;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Approximate word counts in a fixed amount of memory, for corpora whose vocabulary does not fit
+ * in an exact DictionaryBuilder. The words themselves are never stored:
+ * - getFrequency comes from a Count-Min sketch (depth rows of width int counters). With
+ *   width = ceil(e / errorBound) it never under-counts, and it over-counts by more than
+ *   errorBound * getTotalWords() with probability at most e^-depth (see confidence()).
+ *   Counters are updated conservatively (only the smallest ones grow), which keeps the error
+ *   well below that bound in practice.
+ * - getUniqueWords comes from a HyperLogLog with 2^p one-byte registers
+ *   (standard error about 1.04 / sqrt(2^p)).
+ * Words are normalized like DictionaryBuilder.addWord, and files are split by the same
+ * WordTokenizer as DictionaryBuilder.ingestFile, so both count the same words.
+ */
+public class ApproximateDictionary {
+
+    private static final int MAX_DEPTH = 16;
+    private static final int MIN_PRECISION = 4;
+    private static final int MAX_PRECISION = 16;
+    private static final int INGEST_BUFFER_SIZE = 1 << 20;
+
+    private final int width;
+    private final int depth;
+    private final int[] counters;
+    // row r is counters[r * width .. (r + 1) * width)
+    private final double errorBound;
+
+    private final int precision;
+    private final byte[] registers;
+
+    private long totalWords = 0;
+    private final WordNormalizer key = new WordNormalizer();
+
+    // memoryBudget: bytes for the sketch and the HyperLogLog together;
+    // errorBound: maximal over-count as a fraction of all words (e.g. 0.0001).
+    // The HyperLogLog gets up to 1/8 of the budget (at most 64 KB), the rest gives the sketch as many rows as fit.
+    public ApproximateDictionary(long memoryBudget, double errorBound) {
+        if (!(errorBound > 0 && errorBound < 1))
+            throw new IllegalArgumentException("errorBound must be between 0 and 1");
+        int p = MAX_PRECISION;
+        while (p > MIN_PRECISION && (1L << p) > memoryBudget / 8)
+            p--;
+        long sketchBudget = memoryBudget - (1L << p);
+
+        long w = (long) Math.ceil(Math.E / errorBound);
+        long rows = Math.min(MAX_DEPTH, sketchBudget / (4 * w));
+        if (rows < 1 || w * rows > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("a memory budget of " + memoryBudget + " bytes cannot reach an error bound of "
+                    + errorBound + " (one row needs " + 4 * w + " bytes)");
+        this.errorBound = errorBound;
+        this.width = (int) w;
+        this.depth = (int) rows;
+        this.counters = new int[width * depth];
+        this.precision = p;
+        this.registers = new byte[1 << p];
+    }
+
+    public void addWord(String word) {
+        if (word == null) return;
+        int len = key.normalizeWord(word);
+        if (len == 0) return;
+        add(key.chars(), len);
+    }
+
+    // count a word that is already normalized
+    private void add(char[] chars, int len) {
+        long hash = hash64(chars, len);
+        totalWords++;
+
+        // Count-Min, conservative update: raise every row to (current minimum + 1)
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int min = Integer.MAX_VALUE;
+        for (int r = 0; r < depth; r++)
+            min = Math.min(min, counters[index(r, h1, h2)]);
+        if (min < Integer.MAX_VALUE) {
+            // a saturated counter stays at the maximum
+            int target = min + 1;
+            for (int r = 0; r < depth; r++) {
+                int i = index(r, h1, h2);
+                if (counters[i] < target)
+                    counters[i] = target;
+            }
+        }
+
+        // HyperLogLog: top p bits pick the register, it keeps the longest run of leading zeros + 1
+        int register = (int) (hash >>> (64 - precision));
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[register])
+            registers[register] = (byte) rank;
+    }
+
+    // counter of row r (double hashing: h1 + r * h2 gives independent enough rows)
+    private int index(int r, int h1, int h2) {
+        return r * width + (int) (((h1 + r * h2) & 0xffffffffL) % width);
+    }
+
+    // estimated count of the word: never less than the true count
+    public int getFrequency(String word) {
+        if (word == null) return 0;
+        int len = key.normalizeWord(word);
+        if (len == 0) return 0;
+        long hash = hash64(key.chars(), len);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int min = Integer.MAX_VALUE;
+        for (int r = 0; r < depth; r++)
+            min = Math.min(min, counters[index(r, h1, h2)]);
+        return min;
+    }
+
+    // estimated number of different words (HyperLogLog, linear counting while it is small)
+    public long getUniqueWords() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0)
+                zeros++;
+        }
+        double alpha = m == 16 ? 0.673 : m == 32 ? 0.697 : m == 64 ? 0.709 : 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0)
+            estimate = m * Math.log((double) m / zeros);
+        return Math.round(estimate);
+    }
+
+    // exact number of words added (including duplicates)
+    public long getTotalWords() {
+        return totalWords;
+    }
+
+    // count every word of a text file (same words as DictionaryBuilder.ingestFile)
+    public LoadStats ingestFile(String filename) throws IOException {
+        long start = System.nanoTime();
+        long before = totalWords;
+        WordTokenizer tokenizer = new WordTokenizer(this::add);
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(INGEST_BUFFER_SIZE);
+            byte[] bytes = buffer.array();
+            int n;
+            while ((n = channel.read(buffer)) != -1) {
+                tokenizer.feed(bytes, 0, n);
+                buffer.clear();
+            }
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(filename);
+        }
+        tokenizer.finish();
+        return new LoadStats(tokenizer.bytes(), totalWords - before, System.nanoTime() - start);
+    }
+
+    public double errorBound() {
+        return errorBound;
+    }
+
+    // probability that an estimate stays within errorBound * getTotalWords() of the true count
+    public double confidence() {
+        return 1 - Math.exp(-depth);
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    // standard error of getUniqueWords (relative)
+    public double uniqueWordsError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    // bytes used by the counters and registers
+    public long memoryBytes() {
+        return 4L * counters.length + registers.length;
+    }
+
+    // 64-bit FNV-1a over the chars, then the MurmurHash3 finalizer to spread the bits
+    private static long hash64(char[] chars, int len) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < len; i++) {
+            h ^= chars[i];
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
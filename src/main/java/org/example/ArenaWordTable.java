@@ -0,0 +1,221 @@
+package org.example;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compact storage: the words are appended to one growable byte arena and the table only keeps
+ * int offsets, hashes and counts (12 bytes per slot, no object per entry).
+ * Normalized words only contain [a-z0-9' ], so a char is stored as one byte (its UTF-8 encoding).
+ * Every word in the arena is a varint length followed by its bytes.
+ * A lookup checks the cached hash before it looks at the bytes, and a String is only created
+ * when forEach hands the word out (getAllWords, topK, snapshots...).
+ * Probing and incremental rebuilds are done by OpenAddressingTable; removed words stay in the
+ * arena as garbage until the next rebuild copies the live words into a fresh arena.
+ * A rebuild also starts once the garbage outgrows the live words, so removing and adding
+ * words again does not grow the arena without end.
+ */
+final class ArenaWordTable extends OpenAddressingTable {
+
+    ArenaWordTable(int capacity, double maxLoadFactor) {
+        super(new ArenaSlots(capacity, 16), maxLoadFactor);
+    }
+
+    private static final class ArenaSlots extends Slots {
+
+        private static final int EMPTY_OFFSET = -1;
+        private static final int TOMBSTONE = -2;
+        // offsets[slot] is EMPTY_OFFSET, TOMBSTONE or the arena offset of the word
+
+        private final int[] offsets;
+        private final int[] hashes;
+        private final int[] counts;
+        private byte[] arena;
+        private int arenaSize = 0;
+
+        ArenaSlots(int capacity, int arenaBytes) {
+            super(capacity);
+            offsets = new int[capacity];
+            Arrays.fill(offsets, EMPTY_OFFSET);
+            hashes = new int[capacity];
+            counts = new int[capacity];
+            arena = new byte[Math.max(16, arenaBytes)];
+        }
+
+        // the arrays and the used part of the arena are copied: 12 bytes per slot plus the word bytes
+        private ArenaSlots(ArenaSlots from) {
+            super(from);
+            offsets = from.offsets.clone();
+            hashes = from.hashes.clone();
+            counts = from.counts.clone();
+            arena = Arrays.copyOf(from.arena, Math.max(16, from.arenaSize));
+            arenaSize = from.arenaSize;
+        }
+
+        @Override
+        int match(int slot, char[] word, int len, int hash) {
+            int offset = offsets[slot];
+            if (offset == EMPTY_OFFSET)
+                return -1;
+            if (offset >= 0 && hashes[slot] == hash && sameWord(arena, offset, word, len))
+                return 1;
+            return 0;
+        }
+
+        @Override
+        int state(int slot) {
+            int offset = offsets[slot];
+            return offset >= 0 ? LIVE : offset == TOMBSTONE ? REMOVED : EMPTY;
+        }
+
+        @Override
+        int hash(int slot) {
+            return hashes[slot];
+        }
+
+        @Override
+        int count(int slot) {
+            return counts[slot];
+        }
+
+        @Override
+        int addCount(int slot, int delta) {
+            return counts[slot] += delta;
+        }
+
+        @Override
+        String word(int slot) {
+            return readWord(arena, offsets[slot]);
+        }
+
+        // append the word to the arena
+        @Override
+        void put(int slot, char[] word, int len, int hash, int count) {
+            ensureRoom(varintSize(len) + len);
+            int offset = arenaSize;
+            int pos = putVarint(arena, offset, len);
+            for (int i = 0; i < len; i++)
+                arena[pos + i] = (byte) word[i];
+            arenaSize = pos + len;
+            offsets[slot] = offset;
+            hashes[slot] = hash;
+            counts[slot] = count;
+        }
+
+        // copy the word of the old arena to the end of this one
+        @Override
+        void moveFrom(Slots from, int fromSlot, int slot) {
+            ArenaSlots old = (ArenaSlots) from;
+            int offset = old.offsets[fromSlot];
+            int need = wordBytes(old.arena, offset);
+            ensureRoom(need);
+            System.arraycopy(old.arena, offset, arena, arenaSize, need);
+            offsets[slot] = arenaSize;
+            arenaSize += need;
+            hashes[slot] = old.hashes[fromSlot];
+            counts[slot] = old.counts[fromSlot];
+        }
+
+        @Override
+        long clear(int slot) {
+            long bytes = wordBytes(arena, offsets[slot]);
+            offsets[slot] = TOMBSTONE;
+            counts[slot] = 0;
+            return bytes;
+        }
+
+        @Override
+        Slots newGeneration(int capacity, long liveKeyBytes) {
+            return new ArenaSlots(capacity, (int) Math.min(Integer.MAX_VALUE - 8, liveKeyBytes + liveKeyBytes / 2));
+        }
+
+        @Override
+        Slots copy() {
+            return new ArenaSlots(this);
+        }
+
+        @Override
+        long keyBytes() {
+            return arena.length;
+        }
+
+        @Override
+        long usedKeyBytes() {
+            return arenaSize;
+        }
+
+        private void ensureRoom(int need) {
+            if (arena.length - arenaSize >= need)
+                return;
+            long grown = Math.max((long) arenaSize + need, 2L * arena.length);
+            if (grown > Integer.MAX_VALUE - 8) {
+                if ((long) arenaSize + need > Integer.MAX_VALUE - 8)
+                    throw new IllegalStateException("word arena is full (2 GB)");
+                grown = Integer.MAX_VALUE - 8;
+            }
+            arena = Arrays.copyOf(arena, (int) grown);
+        }
+    }
+
+    // ---- arena ----
+
+    // bytes taken by the word at offset (length and chars)
+    private static int wordBytes(byte[] arena, int offset) {
+        int len = readLength(arena, offset);
+        return varintSize(len) + len;
+    }
+
+    private static int varintSize(int value) {
+        int n = 1;
+        while ((value >>>= 7) != 0)
+            n++;
+        return n;
+    }
+
+    private static int putVarint(byte[] buf, int pos, int value) {
+        while ((value & ~0x7f) != 0) {
+            buf[pos++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static int readLength(byte[] buf, int pos) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buf[pos++];
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    // true if the word at offset has exactly the chars key[0..len)
+    private static boolean sameWord(byte[] arena, int offset, char[] key, int len) {
+        int pos = offset;
+        int stored;
+        if (arena[pos] >= 0) {
+            stored = arena[pos++];
+            // one-byte length, the common case
+        } else {
+            stored = readLength(arena, pos);
+            pos += varintSize(stored);
+        }
+        if (stored != len)
+            return false;
+        for (int i = 0; i < len; i++) {
+            if (arena[pos + i] != (byte) key[i])
+                return false;
+        }
+        return true;
+    }
+
+    private static String readWord(byte[] arena, int offset) {
+        int len = readLength(arena, offset);
+        return new String(arena, offset + varintSize(len), len, StandardCharsets.ISO_8859_1);
+        // ASCII bytes: Latin-1 is a plain copy into the String
+    }
+}
@@ -0,0 +1,206 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Loads a text file into a DictionaryBuilder on a virtual thread, so the shell can take
+ * commands right away.
+ * The loader adds one read buffer at a time while holding lock(); another thread that holds
+ * the lock can read the partial dictionary safely.
+ * Changes made while loading are not written into the dictionary: they are kept in order and
+ * applied by applyPending() once the file is read (the file first, then the changes, the same order
+ * as if the load had blocked). frequency() answers from an overlay keyed by the normalized word,
+ * so a search does not look at every pending change.
+ * Everything except the loader thread itself is meant to be used by one (the shell) thread.
+ */
+final class BackgroundLoader {
+
+    private final String filename;
+    private final long totalBytes;
+    private final DictionaryBuilder dictionary;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos = 0;
+    private volatile IOException failure = null;
+    private final Thread thread;
+
+    private final ArrayList<String> pendingWords = new ArrayList<>();
+    private final BitSet pendingRemoves = new BitSet();
+    // pendingWords[i] is a removal if bit i is set, an add otherwise (the order for applyPending)
+    private final HashMap<String, Integer> overlay = new HashMap<>();
+    // normalized word --> count added by the pending changes (since its last pending removal)
+    private final HashSet<String> overlayRemoved = new HashSet<>();
+    // normalized words with a pending removal: their count in the dictionary no longer matters
+    private final WordNormalizer key = new WordNormalizer();
+
+    BackgroundLoader(String filename) {
+        this.filename = filename;
+        this.totalBytes = new File(filename).length();
+        this.dictionary = new DictionaryBuilder(DictionaryBuilder.estimateEntriesFromFile(filename));
+        this.thread = Thread.ofVirtual().name("dictionary-loader").start(this::load);
+    }
+
+    private void load() {
+        try {
+            dictionary.ingestFile(filename, lock, bytesRead);
+        } catch (IOException e) {
+            failure = e;
+            // also how cancel() ends (the channel is closed by the interrupt)
+        } finally {
+            endNanos = System.nanoTime();
+        }
+    }
+
+    String filename() {
+        return filename;
+    }
+
+    boolean isDone() {
+        return !thread.isAlive();
+    }
+
+    // hold it while reading the partial dictionary
+    void lock() {
+        lock.lock();
+    }
+
+    void unlock() {
+        lock.unlock();
+    }
+
+    // point-in-time copy of the words loaded so far, it can be read without holding lock()
+    DictionaryBuilder snapshot() {
+        lock.lock();
+        try {
+            return dictionary.snapshot();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // the dictionary being filled (only read it while holding lock(), until the load is done)
+    DictionaryBuilder dictionary() {
+        return dictionary;
+    }
+
+    // why the load stopped early (null if the whole file was read)
+    IOException failure() {
+        return failure;
+    }
+
+    // stop reading the file, what is loaded so far stays
+    void cancel() {
+        thread.interrupt();
+    }
+
+    // wait until the loader thread is finished, return the loaded dictionary
+    DictionaryBuilder await() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        return dictionary;
+    }
+
+    // record addWord(word) for later
+    void add(String word) {
+        pendingWords.add(word);
+        String normalized = normalized(word);
+        if (!normalized.isEmpty())
+            overlay.merge(normalized, 1, Integer::sum);
+    }
+
+    // record removeWord(word) for later
+    void remove(String word) {
+        pendingRemoves.set(pendingWords.size());
+        pendingWords.add(word);
+        String normalized = normalized(word);
+        if (!normalized.isEmpty()) {
+            overlay.put(normalized, 0);
+            overlayRemoved.add(normalized);
+        }
+    }
+
+    private String normalized(String word) {
+        if (word == null)
+            return "";
+        int len = key.normalizeWord(word);
+        return new String(key.chars(), 0, len);
+    }
+
+    int pendingCount() {
+        return pendingWords.size();
+    }
+
+    // frequency of word in the partial dictionary with the pending changes applied
+    int frequency(String word) {
+        int count;
+        lock.lock();
+        try {
+            count = dictionary.getFrequency(word);
+        } finally {
+            lock.unlock();
+        }
+        String normalized = normalized(word);
+        Integer pending = overlay.get(normalized);
+        if (pending == null)
+            return count;
+        return overlayRemoved.contains(normalized) ? pending : count + pending;
+    }
+
+    // after await(): apply the pending changes in order (and log them in wal if it is not null),
+    // return the removed words that were not found
+    ArrayList<String> applyPending(WriteAheadLog wal) throws IOException {
+        ArrayList<String> missing = new ArrayList<>();
+        for (int i = 0; i < pendingWords.size(); i++) {
+            String word = pendingWords.get(i);
+            if (pendingRemoves.get(i)) {
+                try {
+                    dictionary.removeWord(word);
+                    if (wal != null)
+                        wal.logRemove(word);
+                } catch (DictionaryEntryNotFoundException e) {
+                    missing.add(word);
+                }
+            } else {
+                dictionary.addWord(word);
+                if (wal != null)
+                    wal.logAdd(word);
+            }
+        }
+        if (wal != null)
+            wal.commit();
+        pendingWords.clear();
+        pendingRemoves.clear();
+        overlay.clear();
+        overlayRemoved.clear();
+        return missing;
+    }
+
+    // e.g. "Loading big.txt: 12.0 of 48.0 MB (25%), 36.2 MB/s"
+    String progress() {
+        long read = bytesRead.get();
+        long end = endNanos;
+        long nanos = (end == 0 ? System.nanoTime() : end) - startNanos;
+        LoadStats stats = new LoadStats(read, 0, nanos);
+        int percent = totalBytes == 0 ? 100 : (int) (100 * read / totalBytes);
+        return String.format("%s %s: %.1f of %.1f MB (%d%%), %.1f MB/s",
+                end == 0 ? "Loading" : "Loaded", filename,
+                read / (1024.0 * 1024.0), totalBytes / (1024.0 * 1024.0), percent, stats.getMegabytesPerSecond());
+    }
+}
@@ -0,0 +1,424 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Separate chaining: every bucket is a GenericLinkedList of DictionaryEntry.
+ * The table grows to the next 4k+3 prime once the load factor passes maxLoadFactor.
+ * The old buckets are moved a few at a time on each operation (incremental rehash).
+ * A chain longer than TREEIFY_THRESHOLD (many words with the same hash, or a very high
+ * maxLoadFactor) becomes an EntryTree, and goes back to a list when it shrinks to UNTREEIFY_THRESHOLD.
+ * With moveToFront a word found in a list is moved to its head, so under a skewed workload
+ * the frequent words are found after one or two comparisons.
+ * snapshot() shares the buckets copy-on-write: each bucket has the epoch it was last copied in,
+ * a bucket from before the latest snapshot is copied (nodes and entries, not the word Strings)
+ * the first time it is changed, so a snapshot keeps seeing the buckets as they were.
+ */
+final class ChainedWordTable implements WordTable {
+
+    private GenericLinkedList<DictionaryEntry>[] table;
+    // Array of class MyLinkedLists (hash table buckets)
+    private int capacity;
+    // Number of buckets
+    private int size = 0;
+    // number of entries
+
+    private EntryTree[] trees;
+    // trees[i] holds the entries of bucket i if it is a tree (the list is empty then);
+    // null as long as no bucket of the table is a tree
+    private GenericLinkedList<DictionaryEntry>[] oldTable;
+    // buckets of the previous table while a resize is in progress (null otherwise)
+    private EntryTree[] oldTrees;
+    private int migrateIndex = 0;
+    // next bucket of oldTable that still has to be moved into table
+    private final double maxLoadFactor;
+    // grow the table once size / capacity goes above this value
+    private final KeyMatcher matcher = new KeyMatcher();
+    private boolean moveToFront = false;
+
+    private int[] epochs;
+    // epochs[i] is the epoch in which bucket i was created or last copied; a bucket with an older epoch
+    // is shared with a snapshot (null until the first snapshot: nothing is shared)
+    private int[] oldEpochs;
+    private int epoch = 0;
+    // incremented by every snapshot
+
+    // buckets moved from oldTable on every operation,
+    // must be > 2 so a resize is finished before the next one is needed
+    private static final int MIGRATE_STEP = 4;
+    // largest table we grow to (beyond that the chains just get longer)
+    private static final int MAX_CAPACITY = 1 << 30;
+    // a list with more entries becomes a tree
+    static final int TREEIFY_THRESHOLD = 8;
+    // a tree with this many entries or less becomes a list again (lower, so a bucket does not flip back and forth)
+    static final int UNTREEIFY_THRESHOLD = 6;
+
+    ChainedWordTable(int capacity, double maxLoadFactor) {
+        this.capacity = capacity;
+        this.maxLoadFactor = maxLoadFactor;
+        this.table = newTable(capacity);
+    }
+
+    // create a table with an empty linked list in every bucket
+    @SuppressWarnings("unchecked")
+    private static GenericLinkedList<DictionaryEntry>[] newTable(int capacity) {
+        GenericLinkedList<DictionaryEntry>[] buckets = (GenericLinkedList<DictionaryEntry>[]) new GenericLinkedList[capacity];
+        for (int i = 0; i < capacity; i++)
+            buckets[i] = new GenericLinkedList<>();
+        // run for loop from 0 to capacity,
+        // initialize each ele in hash table to empty each linked list
+        return buckets;
+    }
+
+    @Override
+    public int add(char[] key, int len, int hash, int delta) {
+        migrateSome();
+        DictionaryEntry existing = findForUpdate(key, len, hash);
+
+        // case 1: (addFirst)
+        if (existing == null) {
+            place(new DictionaryEntry(new String(key, 0, len), hash, delta));
+            // new words always go into the current table (the only allocation of the hot path)
+            size++;
+            growIfNeeded();
+            return delta;
+        }
+        //case 2: increase existing
+        existing.add(delta);
+        return existing.getCount();
+    }
+
+    @Override
+    public int get(char[] key, int len, int hash) {
+        migrateSome();
+        DictionaryEntry found = findEntry(key, len, hash);
+        return found == null ? 0 : found.getCount();
+    }
+
+    @Override
+    public int remove(char[] key, int len, int hash) {
+        migrateSome();
+        DictionaryEntry removed = remove(table, trees, epochs, key, len, hash);
+        if (removed == null && oldTable != null)
+            removed = remove(oldTable, oldTrees, oldEpochs, key, len, hash);
+        // the word may still sit in a bucket that has not been moved yet
+        if (removed == null)
+            return 0;
+        size--;
+        return removed.getCount();
+    }
+
+    private DictionaryEntry remove(GenericLinkedList<DictionaryEntry>[] buckets, EntryTree[] trees, int[] epochs, char[] key, int len, int hash) {
+        int i = WordTable.indexForHash(hash, buckets.length);
+        if (shared(epochs, i)) {
+            if (find(buckets, trees, epochs, i, key, len, hash) == null)
+                return null;
+            unshare(buckets, trees, epochs, i);
+        }
+        if (trees == null || trees[i] == null) {
+            matcher.set(key, len, hash);
+            return buckets[i].removeMatch(matcher);
+        }
+        DictionaryEntry removed = trees[i].remove(key, len, hash);
+        if (trees[i].size() <= UNTREEIFY_THRESHOLD) {
+            trees[i].forEach(buckets[i]::addFirst);
+            trees[i] = null;
+        }
+        return removed;
+    }
+
+    @Override
+    public void setMoveToFront(boolean enabled) {
+        moveToFront = enabled;
+    }
+
+    @Override
+    public void forEach(EntryVisitor visitor) {
+        for (int i = 0; i < capacity; i++) {
+            // check each bucket in table
+            for (DictionaryEntry entry : table[i])
+                visitor.visit(entry.getWord(), entry.hash(), entry.getCount());
+            if (trees != null && trees[i] != null)
+                trees[i].forEach(entry -> visitor.visit(entry.getWord(), entry.hash(), entry.getCount()));
+        }
+        if (oldTable != null) {
+            // buckets that have not been moved yet
+            for (int i = migrateIndex; i < oldTable.length; i++) {
+                for (DictionaryEntry entry : oldTable[i])
+                    visitor.visit(entry.getWord(), entry.hash(), entry.getCount());
+                if (oldTrees != null && oldTrees[i] != null)
+                    oldTrees[i].forEach(entry -> visitor.visit(entry.getWord(), entry.hash(), entry.getCount()));
+            }
+        }
+    }
+
+    @Override
+    public void forEachInBuckets(int from, int to, EntryVisitor visitor) {
+        for (int i = from; i < to; i++) {
+            for (DictionaryEntry entry : table[i])
+                visitor.visit(entry.getWord(), entry.hash(), entry.getCount());
+            if (trees != null && trees[i] != null)
+                trees[i].forEach(entry -> visitor.visit(entry.getWord(), entry.hash(), entry.getCount()));
+        }
+    }
+
+    @Override
+    public double maxLoadFactor() {
+        return maxLoadFactor;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isResizing() {
+        return oldTable != null;
+    }
+
+    @Override
+    public int probes(char[] key, int len, int hash) {
+        int n = probes(table, trees, key, len, hash);
+        if (n > 0 || oldTable == null)
+            return n;
+        int old = probes(oldTable, oldTrees, key, len, hash);
+        return old > 0 ? -n + old : n + old;
+    }
+
+    private static int probes(GenericLinkedList<DictionaryEntry>[] buckets, EntryTree[] trees, char[] key, int len, int hash) {
+        int i = WordTable.indexForHash(hash, buckets.length);
+        if (trees != null && trees[i] != null)
+            return trees[i].probes(key, len, hash);
+        return probes(buckets[i], key, len, hash);
+    }
+
+    // entries of bucket compared until the key is found (negative if it is not there)
+    private static int probes(GenericLinkedList<DictionaryEntry> bucket, char[] key, int len, int hash) {
+        int n = 0;
+        for (DictionaryEntry entry : bucket) {
+            n++;
+            if (entry.matches(key, len, hash))
+                return n;
+        }
+        return -n;
+    }
+
+    // a tree bucket reports its height (the most entries a lookup compares with)
+    @Override
+    public void measureBuckets(BucketVisitor visitor) {
+        for (int i = 0; i < capacity; i++)
+            visitor.bucket(trees != null && trees[i] != null ? trees[i].height() : table[i].size());
+        if (oldTable != null) {
+            // buckets that have not been moved yet are still searched
+            for (int i = migrateIndex; i < oldTable.length; i++)
+                visitor.bucket(oldTrees != null && oldTrees[i] != null ? oldTrees[i].height() : oldTable[i].size());
+        }
+    }
+
+    // look for the entry in the current table, then in the old one during a resize
+    private DictionaryEntry findEntry(char[] key, int len, int hash) {
+        DictionaryEntry found = find(table, trees, epochs, WordTable.indexForHash(hash, capacity), key, len, hash);
+        if (found == null && oldTable != null)
+            found = find(oldTable, oldTrees, oldEpochs, WordTable.indexForHash(hash, oldTable.length), key, len, hash);
+        return found;
+    }
+
+    // findEntry for a change of the count: a bucket shared with a snapshot is copied first
+    private DictionaryEntry findForUpdate(char[] key, int len, int hash) {
+        int i = WordTable.indexForHash(hash, capacity);
+        DictionaryEntry found = find(table, trees, epochs, i, key, len, hash);
+        if (found != null) {
+            if (!shared(epochs, i))
+                return found;
+            unshare(table, trees, epochs, i);
+            return find(table, trees, epochs, i, key, len, hash);
+        }
+        if (oldTable == null)
+            return null;
+        int j = WordTable.indexForHash(hash, oldTable.length);
+        found = find(oldTable, oldTrees, oldEpochs, j, key, len, hash);
+        if (found == null || !shared(oldEpochs, j))
+            return found;
+        unshare(oldTable, oldTrees, oldEpochs, j);
+        return find(oldTable, oldTrees, oldEpochs, j, key, len, hash);
+    }
+
+    // a shared bucket is never reordered (a snapshot may be reading it)
+    private DictionaryEntry find(GenericLinkedList<DictionaryEntry>[] buckets, EntryTree[] trees, int[] epochs, int i, char[] key, int len, int hash) {
+        if (trees != null && trees[i] != null)
+            return trees[i].find(key, len, hash);
+        matcher.set(key, len, hash);
+        return moveToFront && !shared(epochs, i) ? buckets[i].findMatchMoveToFront(matcher) : buckets[i].findMatch(matcher);
+    }
+
+    // true if bucket i (with these epochs) still belongs to a snapshot too
+    private boolean shared(int[] epochs, int i) {
+        return epochs != null && epochs[i] != epoch;
+    }
+
+    // give bucket i its own copy of the nodes and entries (same order), unless it has one already
+    private void unshare(GenericLinkedList<DictionaryEntry>[] buckets, EntryTree[] trees, int[] epochs, int i) {
+        if (!shared(epochs, i))
+            return;
+        DictionaryEntry[] entries = new DictionaryEntry[buckets[i].size()];
+        int n = 0;
+        for (DictionaryEntry entry : buckets[i])
+            entries[n++] = copyOf(entry);
+        GenericLinkedList<DictionaryEntry> bucket = new GenericLinkedList<>();
+        while (n > 0)
+            bucket.addFirst(entries[--n]);
+        buckets[i] = bucket;
+        if (trees != null && trees[i] != null) {
+            EntryTree tree = new EntryTree();
+            trees[i].forEach(entry -> tree.insert(copyOf(entry)));
+            trees[i] = tree;
+        }
+        epochs[i] = epoch;
+    }
+
+    private static DictionaryEntry copyOf(DictionaryEntry entry) {
+        return new DictionaryEntry(entry.getWord(), entry.hash(), entry.getCount());
+    }
+
+    // the buckets are shared with the copy, each side copies a bucket before it changes it.
+    // Costs the bucket array and an epoch array (about 12 bytes per bucket) on each side,
+    // plus one copy of every bucket that is changed while the snapshot is alive
+    @Override
+    public WordTable snapshot() {
+        if (oldTable != null)
+            finishMigration();
+        if (epochs == null)
+            epochs = new int[capacity];
+        epoch++;
+        // every bucket now has an older epoch --> shared
+        return new ChainedWordTable(this);
+    }
+
+    private ChainedWordTable(ChainedWordTable from) {
+        this.capacity = from.capacity;
+        this.size = from.size;
+        this.maxLoadFactor = from.maxLoadFactor;
+        this.moveToFront = from.moveToFront;
+        this.table = from.table.clone();
+        this.trees = from.trees == null ? null : from.trees.clone();
+        this.epochs = new int[capacity];
+        this.epoch = 1;
+        // all buckets shared with from
+    }
+
+    // put an entry into its bucket of the current table, turn the bucket into a tree if it got too long
+    private void place(DictionaryEntry entry) {
+        int i = WordTable.indexForHash(entry.hash(), capacity);
+        unshare(table, trees, epochs, i);
+        if (trees != null && trees[i] != null) {
+            trees[i].insert(entry);
+            return;
+        }
+        GenericLinkedList<DictionaryEntry> bucket = table[i];
+        bucket.addFirst(entry);
+        if (bucket.size() > TREEIFY_THRESHOLD) {
+            EntryTree tree = new EntryTree();
+            for (DictionaryEntry e : bucket)
+                tree.insert(e);
+            bucket.clear();
+            if (trees == null)
+                trees = new EntryTree[capacity];
+            trees[i] = tree;
+        }
+    }
+
+    // reusable matcher, so a lookup does not allocate a probe entry
+    private static final class KeyMatcher implements GenericLinkedList.Matcher<DictionaryEntry> {
+        private char[] key;
+        private int len;
+        private int hash;
+
+        void set(char[] key, int len, int hash) {
+            this.key = key;
+            this.len = len;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean matches(DictionaryEntry entry) {
+            return entry.matches(key, len, hash);
+        }
+    }
+
+    // start a resize once the load factor goes above maxLoadFactor
+    // the new table is the next 4k+3 prime of the ladder after doubling the capacity
+    private void growIfNeeded() {
+        if (size <= maxLoadFactor * capacity || capacity >= MAX_CAPACITY)
+            return;
+        if (oldTable != null)
+            finishMigration();
+        // a resize is still running (only with a very small maxLoadFactor) --> finish it first
+
+        int newCapacity = PrimeUtils.ladder4kPlus3Prime((int) Math.min(MAX_CAPACITY, 2L * capacity + 1));
+        oldTable = table;
+        oldTrees = trees;
+        oldEpochs = epochs;
+        migrateIndex = 0;
+        table = newTable(newCapacity);
+        trees = null;
+        capacity = newCapacity;
+        if (epochs != null) {
+            epochs = new int[newCapacity];
+            Arrays.fill(epochs, epoch);
+            // new buckets belong to this table only
+        }
+    }
+
+    // move a few buckets from oldTable into table,
+    // so the cost of a resize is spread over many operations
+    private void migrateSome() {
+        if (oldTable == null)
+            return;
+        int end = Math.min(oldTable.length, migrateIndex + MIGRATE_STEP);
+        for (; migrateIndex < end; migrateIndex++)
+            migrateBucket(migrateIndex);
+        if (migrateIndex == oldTable.length) {
+            oldTable = null;
+            oldTrees = null;
+            oldEpochs = null;
+        }
+        // every bucket is moved --> old table can be dropped
+    }
+
+    private void finishMigration() {
+        for (; migrateIndex < oldTable.length; migrateIndex++)
+            migrateBucket(migrateIndex);
+        oldTable = null;
+        oldTrees = null;
+        oldEpochs = null;
+    }
+
+    private void migrateBucket(int i) {
+        GenericLinkedList<DictionaryEntry> bucket = oldTable[i];
+        if (shared(oldEpochs, i)) {
+            // a snapshot still reads the bucket: move copies and leave it as it is
+            for (DictionaryEntry entry : bucket)
+                place(copyOf(entry));
+            oldTable[i] = new GenericLinkedList<>();
+            if (oldTrees != null && oldTrees[i] != null) {
+                oldTrees[i].forEach(entry -> place(copyOf(entry)));
+                oldTrees[i] = null;
+            }
+            return;
+        }
+        for (DictionaryEntry entry : bucket)
+            place(entry);
+        // reuse the same entries, only the nodes are new
+        bucket.clear();
+        if (oldTrees != null && oldTrees[i] != null) {
+            oldTrees[i].forEach(this::place);
+            oldTrees[i] = null;
+        }
+    }
+}
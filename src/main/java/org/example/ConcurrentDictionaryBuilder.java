@@ -0,0 +1,190 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe version of DictionaryBuilder that can be shared by many threads.
+ * The words are spread over a power-of-two number of stripes, each stripe is its own
+ * WordTable (with its own 4k+3 prime size and incremental resize) guarded by its own lock,
+ * so threads only wait for each other when they touch the same stripe.
+ * The totals are LongAdder counters, so they are not a point of contention either.
+ * getAllWords() and the totals are not an atomic snapshot while other threads are writing.
+ */
+public class ConcurrentDictionaryBuilder implements AutoCloseable {
+
+    private final WordTable[] stripes;
+    private final ReentrantLock[] locks;
+    private final int shift;
+    // stripe = top bits of the mixed hash (the low bits choose the bucket inside the stripe)
+
+    private final LongAdder totalWords = new LongAdder();
+    // including duplicate
+    private final LongAdder uniqueWords = new LongAdder();
+
+    // every thread normalizes into its own buffer
+    private final ThreadLocal<WordNormalizer> normalizer;
+
+    public ConcurrentDictionaryBuilder(int estimatedEntries) {
+        this(estimatedEntries, 4 * Runtime.getRuntime().availableProcessors(), DictionaryBuilder.Backend.CHAINED);
+    }
+
+    public ConcurrentDictionaryBuilder(int estimatedEntries, int concurrencyLevel) {
+        this(estimatedEntries, concurrencyLevel, DictionaryBuilder.Backend.CHAINED);
+    }
+
+    public ConcurrentDictionaryBuilder(int estimatedEntries, int concurrencyLevel, DictionaryBuilder.Backend backend) {
+        this(estimatedEntries, concurrencyLevel, backend, DictionaryBuilder.DEFAULT_HASH_STRATEGY);
+    }
+
+    // concurrencyLevel is rounded up to a power of two (the number of stripes)
+    public ConcurrentDictionaryBuilder(int estimatedEntries, int concurrencyLevel, DictionaryBuilder.Backend backend, HashStrategy hashStrategy) {
+        if (concurrencyLevel < 1)
+            throw new IllegalArgumentException("concurrencyLevel must be at least 1");
+        if (backend == null)
+            throw new IllegalArgumentException("backend cannot be null");
+        if (hashStrategy == null)
+            throw new IllegalArgumentException("hashStrategy cannot be null");
+        this.normalizer = ThreadLocal.withInitial(() -> new WordNormalizer(hashStrategy));
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.min(concurrencyLevel, 1 << 16) - 1);
+        int count = 1 << bits;
+        this.shift = 32 - bits;
+
+        // same sizing as DictionaryBuilder (load factor 0.6, 4k+3 prime), split over the stripes
+        int base = (int) Math.ceil(Math.max(0, estimatedEntries) / 0.6 / count);
+        int cap = PrimeUtils.next4kPlus3Prime(Math.max(3, base));
+
+        stripes = new WordTable[count];
+        locks = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = DictionaryBuilder.newTable(backend, cap, DictionaryBuilder.DEFAULT_MAX_LOAD_FACTOR);
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    // which stripe a hash belongs to
+    private int stripeFor(int hash) {
+        if (shift == 32)
+            return 0;
+        return (hash * 0x9E3779B9) >>> shift;
+    }
+
+    public void addWord(String word) {
+        if (word == null) return;
+        WordNormalizer key = normalizer.get();
+        int len = key.normalizeWord(word);
+        if (len == 0) return;
+
+        int hash = key.hash();
+        int s = stripeFor(hash);
+        int count;
+        locks[s].lock();
+        try {
+            count = stripes[s].add(key.chars(), len, hash, 1);
+        } finally {
+            locks[s].unlock();
+        }
+        if (count == 1)
+            uniqueWords.increment();
+        totalWords.increment();
+    }
+
+    public int getFrequency(String word) {
+        if (word == null) return 0;
+        WordNormalizer key = normalizer.get();
+        int len = key.normalizeWord(word);
+        if (len == 0) return 0;
+
+        int hash = key.hash();
+        int s = stripeFor(hash);
+        // reads lock too: a lookup may move buckets of a running resize
+        locks[s].lock();
+        try {
+            return stripes[s].get(key.chars(), len, hash);
+        } finally {
+            locks[s].unlock();
+        }
+    }
+
+    public void removeWord(String word) throws DictionaryEntryNotFoundException {
+        if (word == null) throw new DictionaryEntryNotFoundException("The word cannot be null.");
+        WordNormalizer key = normalizer.get();
+        int len = key.normalizeWord(word);
+        if (len == 0) throw new DictionaryEntryNotFoundException("The word cannot be empty.");
+
+        int hash = key.hash();
+        int s = stripeFor(hash);
+        int removed;
+        locks[s].lock();
+        try {
+            removed = stripes[s].remove(key.chars(), len, hash);
+        } finally {
+            locks[s].unlock();
+        }
+        if (removed == 0)
+            throw new DictionaryEntryNotFoundException("\"" + word + "\" not found.");
+        totalWords.add(-removed);
+        uniqueWords.decrement();
+    }
+
+    // sorted list of all words, each stripe is locked while it is copied
+    public ArrayList<String> getAllWords() {
+        ArrayList<String> allWords = new ArrayList<>(getUniqueWords());
+        for (int s = 0; s < stripes.length; s++) {
+            locks[s].lock();
+            try {
+                stripes[s].forEach((w, hash, count) -> allWords.add(w));
+            } finally {
+                locks[s].unlock();
+            }
+        }
+        Collections.sort(allWords);
+        return allWords;
+    }
+
+    public int getTotalWords() {
+        return (int) totalWords.sum();
+    }
+
+    public int getUniqueWords() {
+        return (int) uniqueWords.sum();
+    }
+
+    // buckets of all stripes together
+    public int capacity() {
+        int capacity = 0;
+        for (int s = 0; s < stripes.length; s++) {
+            locks[s].lock();
+            try {
+                capacity += stripes[s].capacity();
+            } finally {
+                locks[s].unlock();
+            }
+        }
+        return capacity;
+    }
+
+    public double estimatedLoadFactor() {
+        int capacity = capacity();
+        return capacity == 0 ? 0.0 : (getUniqueWords() * 1.0) / capacity;
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    // free the native memory of OFF_HEAP stripes (no other thread may use the dictionary any more)
+    @Override
+    public void close() {
+        for (int s = 0; s < stripes.length; s++) {
+            locks[s].lock();
+            try {
+                stripes[s].close();
+            } finally {
+                locks[s].unlock();
+            }
+        }
+    }
+}
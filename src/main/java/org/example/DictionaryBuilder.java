@@ -2,9 +2,31 @@
 package org.example;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
 import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 /**
  DictionaryBuilder– manages the hash table, implements methods:
@@ -17,39 +39,143 @@ import java.util.Scanner;
  2/ getCount(String word)
  3/ removeWord(String word)
  4/ getAllWords()– return sorted ArrayList of all the words in the dictionary
+ The table grows to the next 4k+3 prime once the load factor passes maxLoadFactor.
+ OPEN_ADDRESSING, COMPACT and OFF_HEAP never let it go above 0.5 (probing slows down past half full):
+ a bigger maxLoadFactor, like the default 0.75, is lowered to 0.5 and maxLoadFactor() returns 0.5.
+ The old buckets are moved a few at a time on each operation (incremental rehash).
+ The storage engine is chosen with Backend: chained buckets (default) or open addressing.
+ close() frees the native memory of an OFF_HEAP dictionary (it does nothing for the others).
+ Words are hashed with a HashStrategy, by default a seeded one with a random seed per process,
+ so crafted words cannot all be put into the same bucket.
+ snapshot() gives a point-in-time copy that another thread can list, measure or save
+ while this one keeps adding and removing words.
  */
 
 
-public class DictionaryBuilder {
+public class DictionaryBuilder implements AutoCloseable {
 
-    private final GenericLinkedList<DictionaryEntry>[] table;
-    // Array of class MyLinkedLists (hash table buckets)
-    private final int capacity;
-    // Number of buckets
+    // storage engine used for the words
+    public enum Backend {
+        CHAINED,
+        // separate chaining with GenericLinkedList buckets (default), long chains become trees
+        OPEN_ADDRESSING,
+        // flat arrays with quadratic probing, no node per entry
+        COMPACT,
+        // like OPEN_ADDRESSING, but the words live in one byte arena (no String per entry)
+        OFF_HEAP
+        // like COMPACT, but slots and words are in native memory (call close() when done)
+    }
+
+    private final WordTable table;
+    // hash table that stores the entries
+    private final Backend backend;
     private int totalWords = 0;
     // including duplicate
     private int uniqueWords = 0;
+    private final double maxLoadFactor;
+    // the table grows once uniqueWords / capacity goes above this value
+
+    private final HashStrategy hashStrategy;
+    private final WordNormalizer key;
+    // normalized key of the current operation (reused, so lookups do not allocate)
+    private final SortedWordIndex sortedIndex = new SortedWordIndex();
+    // cached sorted word list for getAllWords and range / page listing
+
+    private int untilSample = PROBE_SAMPLE_RATE;
+    // lookups left until the next one that also counts how many entries it compares with
+    private int sampleSeed = 0x2545F491;
+    // xorshift state for the random gap between sampled lookups
+    private long hitSamples = 0;
+    private long hitProbes = 0;
+    private long missSamples = 0;
+    private long missProbes = 0;
+
+    public static final double DEFAULT_MAX_LOAD_FACTOR = 0.75;
+    // about one lookup in PROBE_SAMPLE_RATE is sampled (power of two)
+    static final int PROBE_SAMPLE_RATE = 64;
+    // largest table created up front (the tables do not grow beyond about this size either)
+    private static final int MAX_INITIAL_CAPACITY = 1 << 30;
+    // buckets intersect() walks before it changes them
+    private static final int COMBINE_BLOCK = 256;
+    // used when no HashStrategy is given (one random seed for the whole process)
+    static final HashStrategy DEFAULT_HASH_STRATEGY = HashStrategy.randomSeeded();
 
 
     public DictionaryBuilder(int estimatedEntries) {
-        // use load factor (0.6) and find the nearest 4k+3 prime to estimate table size;
+        this(estimatedEntries, DEFAULT_MAX_LOAD_FACTOR, Backend.CHAINED);
+    }
+
+    public DictionaryBuilder(int estimatedEntries, double maxLoadFactor) {
+        this(estimatedEntries, maxLoadFactor, Backend.CHAINED);
+    }
 
+    public DictionaryBuilder(int estimatedEntries, Backend backend) {
+        this(estimatedEntries, DEFAULT_MAX_LOAD_FACTOR, backend);
+    }
+
+    public DictionaryBuilder(int estimatedEntries, double maxLoadFactor, Backend backend) {
+        this(estimatedEntries, maxLoadFactor, backend, DEFAULT_HASH_STRATEGY);
+    }
+
+    public DictionaryBuilder(int estimatedEntries, double maxLoadFactor, Backend backend, HashStrategy hashStrategy) {
+        this(backend, capacityFor(estimatedEntries), maxLoadFactor, hashStrategy);
+    }
 
-        int base = (int)Math.ceil(estimatedEntries / 0.6);
+    // table with exactly this capacity (used when the size is already known, e.g. a snapshot)
+    private DictionaryBuilder(Backend backend, int capacity, double maxLoadFactor, HashStrategy hashStrategy) {
+        if (!(maxLoadFactor > 0))
+            throw new IllegalArgumentException("maxLoadFactor must be positive");
+        if (backend == null)
+            throw new IllegalArgumentException("backend cannot be null");
+        if (hashStrategy == null)
+            throw new IllegalArgumentException("hashStrategy cannot be null");
+        this.backend = backend;
+        this.hashStrategy = hashStrategy;
+        this.key = new WordNormalizer(hashStrategy);
+
+        this.table = newTable(backend, capacity, maxLoadFactor);
+        this.maxLoadFactor = table.maxLoadFactor();
+        // the open addressing backends lower anything above 0.5 to 0.5
+    }
+
+    // point-in-time copy of from (see snapshot())
+    private DictionaryBuilder(DictionaryBuilder from) {
+        this.maxLoadFactor = from.maxLoadFactor;
+        this.backend = from.backend;
+        this.hashStrategy = from.hashStrategy;
+        this.key = new WordNormalizer(hashStrategy);
+        this.table = from.table.snapshot();
+        this.totalWords = from.totalWords;
+        this.uniqueWords = from.uniqueWords;
+        this.hitSamples = from.hitSamples;
+        this.hitProbes = from.hitProbes;
+        this.missSamples = from.missSamples;
+        this.missProbes = from.missProbes;
+    }
+
+    // empty storage engine of the given kind
+    static WordTable newTable(Backend backend, int capacity, double maxLoadFactor) {
+        switch (backend) {
+            case OPEN_ADDRESSING: return new ProbingWordTable(capacity, maxLoadFactor);
+            case COMPACT: return new ArenaWordTable(capacity, maxLoadFactor);
+            case OFF_HEAP: return new OffHeapWordTable(capacity, maxLoadFactor);
+            default: return new ChainedWordTable(capacity, maxLoadFactor);
+        }
+    }
+
+    // use load factor (0.6) and find the nearest 4k+3 prime to estimate table size;
+    private static int capacityFor(int estimatedEntries) {
+        long base = (long) Math.ceil(estimatedEntries / 0.6);
         // check how big is the hash table
         // only get 60% of full hash table
         // --> give a large number of buckets
 
-        int cap = PrimeUtils.next4kPlus3Prime(Math.max(3, base));
+        return PrimeUtils.next4kPlus3Prime((int) Math.min(MAX_INITIAL_CAPACITY, Math.max(3, base)));
         // check when it is 4k+3 prime
-        this.capacity = cap;
+    }
 
-        // create new empty linked list
-        this.table = (GenericLinkedList<DictionaryEntry>[]) new GenericLinkedList[capacity];
-        for (int i = 0; i < capacity; i++)
-            table[i] = new GenericLinkedList<>();
-        // run for loop from 0 to capacity,
-        // initialize each ele in hash table to empty each linked list
+    static DictionaryBuilder withCapacity(Backend backend, int capacity, double maxLoadFactor, HashStrategy hashStrategy) {
+        return new DictionaryBuilder(backend, capacity, maxLoadFactor, hashStrategy);
     }
 
 
@@ -61,128 +187,535 @@ public class DictionaryBuilder {
     }
 
     // estimate words in file
-    private static int estimateEntriesFromFile(String filename) {
+    static int estimateEntriesFromFile(String filename) {
         File f = new File(filename);
-        int bytes = (int) f.length();
-        // get length of file by bytes
-        int estUnique = Math.max(1, bytes / 100);
+        long bytes = f.length();
+        // get length of file by bytes (a long: files can be larger than 2 GB)
+        long estUnique = Math.max(1, bytes / 100);
         // estimate unique word from the beginning
-        int tableNeed = (int) Math.ceil(estUnique / 0.6);
-        // calculate hash table based on load factor (=0.6) and the prime number 4k+3
-        PrimeUtils.next4kPlus3Prime(Math.min(Integer.MAX_VALUE, tableNeed));
-        return estUnique;
-    }
-
-    // get index in Hash
-    private static int indexForHash(int hash, int capacity) {
-        int h = hash ^ (hash >>> 16);
-        if (h < 0) h = -h;
-        return h % capacity;
-    }
-
-    // covert words into normal words (Lowercase - Remove - trim space)
-    private static String normalize(String word) {
-        if (word == null) return "";
-        word = word.toLowerCase();
-        word = word.replaceAll("[^a-z0-9']+", " ").trim();
-        return word;
+        return (int) Math.min(estUnique, (long) (MAX_INITIAL_CAPACITY * 0.6));
+        // the table size (load factor 0.6, 4k+3 prime) is computed from it by capacityFor
     }
 
-
     // read file and add all words into that file
-    private void loadFile(String filename) throws FileNotFoundException {
-        try (Scanner sc = new Scanner(new File(filename))) {
+    private LoadStats loadFile(String filename) throws FileNotFoundException {
+        long start = System.nanoTime();
+        int totalBefore = totalWords;
+        File file = new File(filename);
+        try (Scanner sc = new Scanner(file)) {
             while (sc.hasNextLine()) {
                 String line = sc.nextLine();
-                String cleaned = normalize(line);
+                String cleaned = WordNormalizer.normalize(line);
                 if (cleaned.isEmpty())
                     continue;
                 String[] tokens = cleaned.split("\\s+");
                 for (String t : tokens) {
                     if (t.isEmpty() || t.equals("'"))
                         continue;
-                    addWord(t);
+                    int len = key.copy(t);
+                    addNormalized(key.chars(), len, key.hash());
+                    // t is already normalized
                 }
             }
         }
+        return new LoadStats(file.length(), totalWords - totalBefore, System.nanoTime() - start);
     }
 
-    public void addWord(String word) {
-        if (word == null) return;
-        String newWord = normalize(word);
-        // normalize word
+    // size of the read buffer of ingestFile
+    private static final int INGEST_BUFFER_SIZE = 1 << 20;
 
-        if (newWord.isEmpty()) return;
+    // same result as loadFromFile, but the file is streamed through a FileChannel
+    // and split into words by WordTokenizer, straight from the bytes (UTF-8):
+    // no line Strings, no regex, no split arrays, words go directly into the table.
+    // A file ending in .gz is decompressed on the fly (the stats then count the text bytes)
+    public LoadStats ingestFile(String filename) throws IOException {
+        return ingestFile(filename, null, null);
+    }
 
-        int index = indexForHash(newWord.hashCode(), capacity);
-        // get hash code of newWord after normalizing --> index
+    // ingestFile for a load running in the background (BackgroundLoader): every buffer is added
+    // while holding lock, so another thread holding it sees a consistent (partial) dictionary,
+    // and bytesRead is advanced after each buffer to report progress
+    LoadStats ingestFile(String filename, Lock lock, AtomicLong bytesRead) throws IOException {
+        long start = System.nanoTime();
+        WordTokenizer tokenizer = new WordTokenizer((token, len) -> addNormalized(token, len, hashStrategy.hash(token, len)));
+        try (ReadableByteChannel channel = openText(Path.of(filename))) {
+            ByteBuffer buffer = ByteBuffer.allocate(INGEST_BUFFER_SIZE);
+            byte[] bytes = buffer.array();
+            int n;
+            while ((n = channel.read(buffer)) != -1) {
+                if (lock != null)
+                    lock.lock();
+                try {
+                    tokenizer.feed(bytes, 0, n);
+                } finally {
+                    if (lock != null)
+                        lock.unlock();
+                }
+                if (bytesRead != null)
+                    bytesRead.addAndGet(n);
+                buffer.clear();
+            }
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(filename);
+        }
+        if (lock != null)
+            lock.lock();
+        try {
+            tokenizer.finish();
+            // the last word of the file
+        } finally {
+            if (lock != null)
+                lock.unlock();
+        }
+        return new LoadStats(tokenizer.bytes(), tokenizer.tokens(), System.nanoTime() - start);
+    }
 
-        GenericLinkedList<DictionaryEntry> bucket = table[index];
-        // get the bucket at that index
+    // the bytes of the text in a file, decompressed if its name ends in .gz
+    static ReadableByteChannel openText(Path path) throws IOException {
+        if (!path.getFileName().toString().endsWith(".gz"))
+            return FileChannel.open(path, StandardOpenOption.READ);
+        InputStream in = Files.newInputStream(path);
+        try {
+            return Channels.newChannel(new GZIPInputStream(in, 1 << 16));
+        } catch (IOException e) {
+            in.close();
+            // not a gzip file
+            throw e;
+        }
+    }
 
-        DictionaryEntry probe = new DictionaryEntry(newWord);
-        DictionaryEntry existing = bucket.find(probe);
+    // load every file under dir whose path (relative to dir) matches glob, e.g. "*.txt" or "**/*.{txt,gz}".
+    // The files are read and tokenized by a pool of worker threads while this thread adds their words,
+    // so the counts are the same as loading the files one after another (see DirectoryLoader)
+    public DirectoryLoadStats loadFromDirectory(Path dir, String glob) throws IOException {
+        return loadFromDirectory(dir, glob, Runtime.getRuntime().availableProcessors());
+    }
 
-        // check probe whether it is in bucket
+    public DirectoryLoadStats loadFromDirectory(Path dir, String glob, int parallelism) throws IOException {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        return new DirectoryLoader(this, parallelism).load(dir, glob);
+    }
 
-        // case 1: (addFirst)
-        if (existing == null) {
-            bucket.addFirst(probe);
-            uniqueWords++;
-            //case 2: increase existing
-        } else {
-            existing.increment();
+    // empty dictionary with the same backend, load factor and hash strategy (its hashes can be merged into this one)
+    DictionaryBuilder emptyCopy(int estimatedEntries) {
+        return new DictionaryBuilder(estimatedEntries, maxLoadFactor, backend, hashStrategy);
+    }
+
+    // same result as ingestFile, but the file is cut into `parallelism` byte ranges
+    // that end on a separator byte (so no word is split), each range is counted by a
+    // ForkJoin worker into its own DictionaryBuilder, then the partial tables are merged into this one
+    public LoadStats ingestFileParallel(String filename, int parallelism) throws IOException {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        long start = System.nanoTime();
+        int totalBefore = totalWords;
+        Path path = Path.of(filename);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] bounds = splitRanges(channel, size, parallelism);
+
+            List<Callable<DictionaryBuilder>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long from = bounds[i];
+                long to = bounds[i + 1];
+                if (from < to)
+                    tasks.add(() -> countRange(channel, from, to));
+            }
+            List<Future<DictionaryBuilder>> partials = pool.invokeAll(tasks);
+            try {
+                for (Future<DictionaryBuilder> partial : partials)
+                    mergeFrom(partial.get());
+            } finally {
+                for (Future<DictionaryBuilder> partial : partials) {
+                    if (partial.state() == Future.State.SUCCESS)
+                        partial.resultNow().close();
+                    // the partial tables may hold native memory
+                }
+            }
+            return new LoadStats(size, totalWords - totalBefore, System.nanoTime() - start);
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(filename);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while loading " + filename, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io)
+                throw io;
+            throw new IOException("loading " + filename + " failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // start offsets of the ranges (plus size at the end), each border moved forward
+    // to just after a separator byte; ASCII bytes never occur inside a UTF-8 sequence
+    private static long[] splitRanges(FileChannel channel, long size, int parts) throws IOException {
+        long[] bounds = new long[parts + 1];
+        bounds[parts] = size;
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (int i = 1; i < parts; i++) {
+            long pos = Math.max(bounds[i - 1], size / parts * i);
+            bounds[i] = size;
+            // no separator found --> this range is empty, the previous one goes on
+            search:
+            while (pos < size) {
+                buffer.clear();
+                int n = channel.read(buffer, pos);
+                if (n <= 0)
+                    break;
+                for (int j = 0; j < n; j++) {
+                    if (isSeparatorByte(buffer.get(j))) {
+                        bounds[i] = pos + j + 1;
+                        break search;
+                    }
+                }
+                pos += n;
+            }
+        }
+        return bounds;
+    }
+
+    // ASCII byte that can never be part of a word
+    private static boolean isSeparatorByte(byte b) {
+        return b >= 0 && !((b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '\'');
+    }
+
+    // count the words of bytes [from, to) of the file into a new table (runs on a worker)
+    private DictionaryBuilder countRange(FileChannel channel, long from, long to) throws IOException {
+        DictionaryBuilder partial = new DictionaryBuilder((int) Math.min(Integer.MAX_VALUE / 2, Math.max(1, (to - from) / 100)), maxLoadFactor, backend, hashStrategy);
+        // same strategy, so mergeFrom can keep the hashes
+        WordTokenizer tokenizer = new WordTokenizer((token, len) -> partial.addNormalized(token, len, hashStrategy.hash(token, len)));
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(INGEST_BUFFER_SIZE, to - from));
+        byte[] bytes = buffer.array();
+        long pos = from;
+        while (pos < to) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), to - pos));
+            int n = channel.read(buffer, pos);
+            if (n <= 0)
+                break;
+            tokenizer.feed(bytes, 0, n);
+            pos += n;
+        }
+        tokenizer.finish();
+        return partial;
+    }
+
+    // add the count of every word of other to this dictionary
+    public void mergeFrom(DictionaryBuilder other) {
+        combine(other, this::addCount);
+    }
+
+    // frequency diff: lower the count of every word of other by its count there,
+    // a word that gets to 0 (or below) is removed; words that are only in other are ignored
+    public void subtract(DictionaryBuilder other) {
+        combine(other, (chars, len, hash, count) -> {
+            int have = table.get(chars, len, hash);
+            if (have > count)
+                addCount(chars, len, hash, -count);
+            else if (have > 0)
+                removeNormalized(chars, len, hash);
+        });
+    }
+
+    // keep only the words that are also in other, each with the smaller of its two counts
+    public void intersect(DictionaryBuilder other) {
+        checkOther(other);
+        boolean sameHash = hashStrategy.equals(other.hashStrategy);
+        List<CountChange> changes = new ArrayList<>();
+        WordTable.EntryVisitor collect = (word, hash, count) -> {
+            int len = key.copyChars(word);
+            int theirs = other.table.get(key.chars(), len, sameHash ? hash : other.hashOf(key.chars(), len));
+            if (theirs < count)
+                changes.add(new CountChange(word, hash, count, theirs));
+        };
+        // the words are changed after a block is walked, a bucket cannot be changed while it is iterated
+        if (table.isResizing()) {
+            table.forEach(collect);
+            applyIntersect(changes);
+            return;
+        }
+        int capacity = table.capacity();
+        for (int from = 0; from < capacity; from += COMBINE_BLOCK) {
+            table.forEachInBuckets(from, Math.min(capacity, from + COMBINE_BLOCK), collect);
+            applyIntersect(changes);
+            changes.clear();
+        }
+    }
+
+    // a word of this dictionary whose count goes from oldCount to newCount (0 = remove it)
+    private record CountChange(String word, int hash, int oldCount, int newCount) {
+    }
+
+    private void applyIntersect(List<CountChange> changes) {
+        for (CountChange change : changes) {
+            int len = key.copyChars(change.word());
+            if (change.newCount() == 0)
+                removeNormalized(key.chars(), len, change.hash());
+            else
+                addCount(key.chars(), len, change.hash(), change.newCount() - change.oldCount());
         }
+    }
+
+    // one pass over other: every word is handed to op with its count and its hash in this dictionary,
+    // which is other's hash if both use the same strategy (nothing is normalized again)
+    private void combine(DictionaryBuilder other, WordOp op) {
+        checkOther(other);
+        boolean sameHash = hashStrategy.equals(other.hashStrategy);
+        other.table.forEach((word, hash, count) -> {
+            int len = key.copyChars(word);
+            op.apply(key.chars(), len, sameHash ? hash : hashStrategy.hash(key.chars(), len), count);
+        });
+    }
+
+    private void checkOther(DictionaryBuilder other) {
+        if (other == null)
+            throw new IllegalArgumentException("other cannot be null");
+        if (other == this)
+            throw new IllegalArgumentException("cannot combine a dictionary with itself");
+    }
+
+    @FunctionalInterface
+    private interface WordOp { void apply(char[] chars, int len, int hash, int count); }
+
+    public void addWord(String word) {
+        if (word == null) return;
+        int len = key.normalizeWord(word);
+        // normalize word
+
+        if (len == 0) return;
+        addNormalized(key.chars(), len, key.hash());
+    }
+
+    // add a word that is already normalized
+    private void addNormalized(char[] key, int len, int hash) {
+        if (--untilSample == 0)
+            sampleProbes(key, len, hash);
+        if (table.add(key, len, hash, 1) == 1)
+            wordAdded(key, len);
+        // count is 1 --> the word was new
         totalWords++;
     }
+
+    // add count occurrences of a word that is already normalized
+    void addCount(char[] key, int len, int hash, int count) {
+        if (--untilSample == 0)
+            sampleProbes(key, len, hash);
+        if (table.add(key, len, hash, count) == count)
+            wordAdded(key, len);
+        totalWords += count;
+    }
+
+    private void wordAdded(char[] key, int len) {
+        uniqueWords++;
+        if (sortedIndex.isActive())
+            sortedIndex.wordAdded(new String(key, 0, len));
+    }
     // check how many times does that word appear
     public int getFrequency(String word) {
         if (word == null) {
             return 0;
         }
-        String newWord = normalize(word);
-        if (newWord.isEmpty()) {
+        int len = key.normalizeWord(word);
+        if (len == 0) {
             return 0;
         }
+        if (--untilSample == 0)
+            sampleProbes(key.chars(), len, key.hash());
+        return table.get(key.chars(), len, key.hash());
+    }
 
-        int index = indexForHash(newWord.hashCode(), capacity);
-        DictionaryEntry found = table[index].find(new DictionaryEntry(newWord));
-        if (found == null) {
-            return 0;
+    // count the entries a lookup of the key compares with (a second, read-only lookup);
+    // the gap to the next sample is random, so a periodic workload is not always sampled at the same step
+    private void sampleProbes(char[] key, int len, int hash) {
+        sampleSeed ^= sampleSeed << 13;
+        sampleSeed ^= sampleSeed >>> 17;
+        sampleSeed ^= sampleSeed << 5;
+        untilSample = 1 + (sampleSeed & (2 * PROBE_SAMPLE_RATE - 1));
+        int probes = table.probes(key, len, hash);
+        if (probes > 0) {
+            hitSamples++;
+            hitProbes += probes;
+        } else {
+            missSamples++;
+            missProbes -= probes;
         }
-        return found.getCount();
+    }
+
+    // chain-length histogram, longest chain, empty buckets and the sampled probes per hit / miss;
+    // walks every bucket, so it costs O(capacity)
+    public TableStats tableStats() {
+        long[] histogram = new long[TableStats.HISTOGRAM_SIZE];
+        int[] maxChain = {0};
+        table.measureBuckets(length -> {
+            histogram[Math.min(length, histogram.length - 1)]++;
+            if (length > maxChain[0])
+                maxChain[0] = length;
+        });
+        return new TableStats(table.capacity(), table.size(), histogram, maxChain[0],
+                hitSamples, hitProbes, missSamples, missProbes, table.keyBytes());
     }
 
     public void removeWord(String word) throws DictionaryEntryNotFoundException {
         if (word == null) throw new DictionaryEntryNotFoundException("The word cannot be null." );
-        String newWord = normalize(word);
-        if (newWord.isEmpty()) throw new DictionaryEntryNotFoundException("The word cannot be empty.");
+        int len = key.normalizeWord(word);
+        if (len == 0) throw new DictionaryEntryNotFoundException("The word cannot be empty.");
 
-        int index = indexForHash(newWord.hashCode(), capacity);
-        // check index bucket of hash table that word will be there
-        DictionaryEntry removed = table[index].remove(new DictionaryEntry(newWord));
-        // find and remove "newWord" in DictionaryEntry
+        int removed = removeNormalized(key.chars(), len, key.hash());
+        // find and remove the normalized word in the table
 
-        if (removed == null) {
+        if (removed == 0)
             throw new DictionaryEntryNotFoundException("\"" + word + "\" not found.");
-        } else {
-            totalWords -= removed.getCount();
-            uniqueWords--;
+    }
+
+    // add every word of the batch (null and empty words are skipped, like addWord);
+    // the batch is normalized once, visited in bucket order and the totals are updated once
+    public void addAll(Collection<String> words) {
+        addAll(words.toArray(new String[0]));
+    }
+
+    public void addAll(Stream<String> words) {
+        addAll(words.toArray(String[]::new));
+    }
+
+    public void addAll(String[] words) {
+        WordBatch batch = new WordBatch(words, key);
+        int added = 0;
+        int newWords = 0;
+        for (int i : batch.bucketOrder(table.capacity())) {
+            int len = batch.length(i);
+            char[] chars = batch.key(i);
+            if (table.add(chars, len, batch.hash(i), 1) == 1) {
+                newWords++;
+                if (sortedIndex.isActive())
+                    sortedIndex.wordAdded(new String(chars, 0, len));
+            }
+            added++;
         }
+        totalWords += added;
+        uniqueWords += newWords;
     }
 
-    public ArrayList<String> getAllWords() {
-        // create new list to store all words with the capacity of uniqueWords
-        ArrayList<String> allWords = new ArrayList<>(uniqueWords);
-        for (int i = 0; i < capacity; i++) {
-            // check each bucket in table
-            for(DictionaryEntry entry : table[i]){
-                // check all DictionaryEntry in table[i]
-                allWords.add(entry.getWord());
+    // frequency of every word, result[i] belongs to words[i] (0 for missing, null or empty words)
+    public int[] getFrequencies(Collection<String> words) {
+        return getFrequencies(words.toArray(new String[0]));
+    }
+
+    public int[] getFrequencies(Stream<String> words) {
+        return getFrequencies(words.toArray(String[]::new));
+    }
+
+    public int[] getFrequencies(String[] words) {
+        WordBatch batch = new WordBatch(words, key);
+        int[] result = new int[words.length];
+        for (int i : batch.bucketOrder(table.capacity()))
+            result[i] = table.get(batch.key(i), batch.length(i), batch.hash(i));
+        return result;
+    }
+
+    // remove every word of the batch, return the words that were not found
+    // (in the order they were given, null and empty words included) instead of throwing for each
+    public List<String> removeAll(Collection<String> words) {
+        return removeAll(words.toArray(new String[0]));
+    }
+
+    public List<String> removeAll(Stream<String> words) {
+        return removeAll(words.toArray(String[]::new));
+    }
+
+    public List<String> removeAll(String[] words) {
+        WordBatch batch = new WordBatch(words, key);
+        boolean[] found = new boolean[words.length];
+        int removedWords = 0;
+        int removedCount = 0;
+        for (int i : batch.bucketOrder(table.capacity())) {
+            int len = batch.length(i);
+            char[] chars = batch.key(i);
+            int removed = table.remove(chars, len, batch.hash(i));
+            if (removed > 0) {
+                found[i] = true;
+                removedWords++;
+                removedCount += removed;
+                if (sortedIndex.isActive())
+                    sortedIndex.wordRemoved(new String(chars, 0, len));
             }
         }
-        Collections.sort(allWords);
-        return allWords;
+        totalWords -= removedCount;
+        uniqueWords -= removedWords;
+
+        ArrayList<String> missing = new ArrayList<>();
+        for (int i = 0; i < words.length; i++) {
+            if (!found[i])
+                missing.add(words[i]);
+        }
+        return missing;
+    }
+
+    // sorted list of all words; the sorted order is cached and read together with the
+    // words added / removed since it was built, so repeated listings cost O(n)
+    public ArrayList<String> getAllWords() {
+        return sortedIndex.all(table);
+    }
+
+    // visit all words in sorted order without copying them into a list
+    // (the dictionary must not be changed by action)
+    public void forEachWord(Consumer<String> action) {
+        sortedIndex.forEach(table, action);
+    }
+
+    // sorted words w with from <= w < to (null means no bound)
+    public ArrayList<String> getWordsBetween(String from, String to) {
+        return sortedIndex.between(table, from, to);
+    }
+
+    // sorted words, skipping the first offset ones, at most limit of them
+    public ArrayList<String> getWords(int offset, int limit) {
+        return sortedIndex.page(table, offset, limit);
+    }
+
+    // words starting with prefix (normalized like addWord) and their counts, in alphabetical order,
+    // at most limit of them; binary search in the sorted index instead of a scan of all words
+    public List<DictionaryEntry> getWordsWithPrefix(String prefix, int limit) {
+        String p = WordNormalizer.normalize(prefix);
+        ArrayList<DictionaryEntry> result = new ArrayList<>();
+        for (String word : sortedIndex.withPrefix(table, p, limit)) {
+            int len = key.copy(word);
+            result.add(new DictionaryEntry(word, table.get(key.chars(), len, key.hash())));
+        }
+        return result;
+    }
+
+    public List<DictionaryEntry> getWordsWithPrefix(String prefix) {
+        return getWordsWithPrefix(prefix, Integer.MAX_VALUE);
+    }
+
+    // the k most frequent words with their counts, most frequent first
+    // (equal counts in alphabetical order); one pass over the table with a min-heap of size k
+    public List<DictionaryEntry> topK(int k) {
+        if (k < 0)
+            throw new IllegalArgumentException("k cannot be negative");
+        // heap top = the weakest of the k best seen so far
+        Comparator<DictionaryEntry> weakestFirst = Comparator.comparingInt(DictionaryEntry::getCount)
+                .thenComparing(DictionaryEntry::getWord, Comparator.reverseOrder());
+        PriorityQueue<DictionaryEntry> heap = new PriorityQueue<>(Math.max(1, Math.min(k, uniqueWords)), weakestFirst);
+        if (k > 0) {
+            table.forEach((word, hash, count) -> {
+                if (heap.size() < k) {
+                    heap.add(new DictionaryEntry(word, count));
+                } else {
+                    DictionaryEntry weakest = heap.peek();
+                    if (count > weakest.getCount() || (count == weakest.getCount() && word.compareTo(weakest.getWord()) < 0)) {
+                        heap.poll();
+                        heap.add(new DictionaryEntry(word, count));
+                    }
+                }
+            });
+        }
+        ArrayList<DictionaryEntry> top = new ArrayList<>(heap);
+        top.sort(weakestFirst.reversed());
+        return top;
     }
 
     public int getTotalWords(){
@@ -192,13 +725,94 @@ public class DictionaryBuilder {
         return uniqueWords;
     }
     public int capacity(){
-        return capacity;
+        return table.capacity();
     }
     public double estimatedLoadFactor(){
+        int capacity = table.capacity();
         return capacity == 0 ? 0.0 : (uniqueWords * 1.0) / capacity;
     }
+    // load factor the table grows at: the one given to the constructor, at most 0.5 for open addressing
+    public double maxLoadFactor(){
+        return maxLoadFactor;
+    }
+    public HashStrategy hashStrategy(){
+        return hashStrategy;
+    }
+    // CHAINED only: move a word that is looked up or added to the front of its chain, so frequent words
+    // are found after one or two comparisons (helps skewed workloads, costs a few writes on a hit)
+    public void setMoveToFront(boolean enabled){
+        table.setMoveToFront(enabled);
+    }
+    // point-in-time copy for readers: another thread can list, measure or save it while addWord / removeWord
+    // go on here, without waiting for each other (only this call has to be ordered with the writes, e.g. under their lock).
+    // The copy can be changed without changing this one; close it when done (OFF_HEAP).
+    // Memory: CHAINED shares its buckets copy-on-write, the call costs about 12 bytes per bucket and each bucket
+    // written afterwards (by either side) is copied once, up to one copy of the table without the word Strings;
+    // the other backends copy their arrays and word bytes right away.
+    // Old bucket versions are reclaimed by the GC once the snapshot is dropped; buckets that were shared are still
+    // copied once more on their next write here, the table cannot tell that the snapshot is gone.
+    public DictionaryBuilder snapshot(){
+        return new DictionaryBuilder(this);
+    }
+    // true while entries are still being moved from the previous table
+    public boolean isResizing(){
+        return table.isResizing();
+    }
 
-    public void loadFromFile(String filename) throws FileNotFoundException {
-        loadFile(filename);
+    public LoadStats loadFromFile(String filename) throws FileNotFoundException {
+        return loadFile(filename);
+    }
+
+    // write the whole dictionary to a compact binary snapshot (see DictionarySnapshot)
+    public void save(Path path) throws IOException {
+        DictionarySnapshot.save(this, path);
+    }
+
+    // read a dictionary written by save(), without tokenizing or hashing any text
+    // (it keeps the hash strategy it was saved with)
+    public static DictionaryBuilder load(Path path) throws IOException {
+        return DictionarySnapshot.load(path, null);
+    }
+
+    // load(path), but the dictionary uses hashStrategy
+    // (the words are hashed again if the snapshot was saved with another strategy)
+    public static DictionaryBuilder load(Path path, HashStrategy hashStrategy) throws IOException {
+        if (hashStrategy == null)
+            throw new IllegalArgumentException("hashStrategy cannot be null");
+        return DictionarySnapshot.load(path, hashStrategy);
+    }
+
+    // hash of a normalized word with this dictionary's strategy
+    int hashOf(char[] chars, int len) {
+        return hashStrategy.hash(chars, len);
+    }
+
+    // remove a word that is already normalized, return its count (0 if it was not there)
+    int removeNormalized(char[] chars, int len, int hash) {
+        int removed = table.remove(chars, len, hash);
+        if (removed > 0) {
+            totalWords -= removed;
+            uniqueWords--;
+            if (sortedIndex.isActive())
+                sortedIndex.wordRemoved(new String(chars, 0, len));
+        }
+        return removed;
+    }
+
+    Backend backend() {
+        return backend;
+    }
+
+    // free the native memory of an OFF_HEAP dictionary; it cannot be used afterwards
+    // (other backends live on the heap and stay usable)
+    @Override
+    public void close() {
+        table.close();
+        sortedIndex.invalidate();
+    }
+
+    // every word with its hash and count, in table order
+    void forEachEntry(WordTable.EntryVisitor visitor) {
+        table.forEach(visitor);
     }
 }
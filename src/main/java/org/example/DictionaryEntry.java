@@ -1,4 +1,3 @@
-
 package org.example;
 
 /**
@@ -7,19 +6,41 @@ package org.example;
  */
 public class DictionaryEntry {
     private final String word;
+    private final int hash; // hash the table used to place this entry
     private int count; // its frequency
 
     // constructor
     public DictionaryEntry(String word) {
+        this(word, 1);
+    }
+
+    public DictionaryEntry(String word, int count) {
+        if (word == null) throw new IllegalArgumentException("words are null");
+        this.word = word;
+        this.hash = word.hashCode();
+        this.count = count;
+    }
+
+    // used by the tables, which compute the hash themselves
+    DictionaryEntry(String word, int hash, int count) {
         if (word == null) throw new IllegalArgumentException("words are null");
         this.word = word;
-        this.count = 1;
+        this.hash = hash;
+        this.count = count;
     }
+
     // methods:
     public String getWord() { return word; }
     public int getCount() { return count; }
     public void increment() { count++; }
     public void decrement() { if (count > 0) count--; }
+    public void add(int delta) { count += delta; }
+    int hash() { return hash; }
+
+    // compare with the first len chars of key without building a String
+    boolean matches(char[] key, int len, int hash) {
+        return this.hash == hash && WordTable.sameWord(word, key, len);
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -1,125 +1,497 @@
 package org.example;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileNotFoundException;
-import java.util.ArrayList;
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.management.JMException;
 
 /**
  * contains a main that provides a command-line interface to DictionaryBuilder
  * Accept a command line argument of a filename to load as the dictionary
+ * (or --snapshot <file> to start from a binary snapshot written by save)
+ * --wal <file> keeps a write-ahead log of add / delete, replayed on startup; the changes of one
+ * batch of input (the commands already waiting when one is read) are committed together before
+ * the batch's output is shown (--fsync always|periodic|never chooses when a commit forces the log to disk)
+ * --script <file> runs the commands of a file ("-" = standard input) without banner and prompts
+ * The text file is loaded on a background thread while commands are already accepted:
+ * add / delete are kept aside and applied once the file is loaded, reads wait for the file
+ * (or, with --stale-ok, answer from the words loaded so far); stats shows the progress.
+ * Changes made while loading reach the write-ahead log only when the load is finished.
  * Allow the user to interact with the dictionary using the following commands:
- * search, add, delete, list, stats, exit
+ * search, add, delete, list, range, page, prefix, top, stats, save, load, compact, exit
+ * The stats are also published as the MBean org.example:type=DictionaryStats,name="DictionaryShell",
+ * read when a JMX client asks for them (also while the shell waits for input).
  */
 public class DictionaryShell {
 
+    // all output goes through one buffered writer, flushed once the pending input is handled
+    private static PrintWriter out;
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+    private static final int INPUT_BUFFER_SIZE = 1 << 16;
+
     private static void printCommand() {
-        System.out.println("Available commands: search <word>, add <word>, delete <word>, list, stats, exit");
+        out.println("Available commands: search <word>, add <word>, delete <word>, list, "
+                + "range <from> <to>, page <offset> <limit>, prefix <p> [limit], top <k>, stats, "
+                + "save <file>, load <file>, compact [file], exit");
     }
 
     public static void main(String[] args) {
-        DictionaryBuilder dictionary;
-        if (args.length >= 1) {
-            String fileName = args[0];
+        out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), OUTPUT_BUFFER_SIZE), false);
+        String fileName = null;
+        String scriptName = null;
+        String snapshotName = null;
+        String walName = null;
+        boolean staleOk = false;
+        WriteAheadLog.SyncPolicy syncPolicy = WriteAheadLog.SyncPolicy.EVERY_COMMIT;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--snapshot") && i + 1 < args.length)
+                snapshotName = args[++i];
+            else if (args[i].equals("--wal") && i + 1 < args.length)
+                walName = args[++i];
+            else if (args[i].equals("--script") && i + 1 < args.length)
+                scriptName = args[++i];
+            else if (args[i].equals("--fsync") && i + 1 < args.length)
+                syncPolicy = parseSyncPolicy(args[++i]);
+            else if (args[i].equals("--stale-ok"))
+                staleOk = true;
+            else if (fileName == null)
+                fileName = args[i];
+        }
+
+        DictionaryBuilder dictionary = null;
+        BackgroundLoader loading = null;
+        // not null while the text file is still being read
+        if (snapshotName != null) {
+            // boot from the snapshot, no text to tokenize
+            try {
+                dictionary = DictionaryBuilder.load(Path.of(snapshotName));
+            } catch (IOException e) {
+                out.println("Snapshot " + snapshotName + " cannot be loaded: " + e.getMessage());
+            }
+        }
+        boolean fromSnapshot = dictionary != null;
+        if (fromSnapshot) {
+            out.println("Loaded snapshot " + snapshotName + ".");
+        } else if (fileName != null && scriptName == null && new File(fileName).isFile()) {
+            // read the file on a virtual thread and take commands right away
+            loading = new BackgroundLoader(fileName);
+            dictionary = loading.dictionary();
+            out.println("Loading " + fileName + " in the background.");
+        } else if (fileName != null) {
             // check existing file --> read dictionary from DictionaryBuilder(fileName)
+            // (a script always waits for the file, so its output does not depend on timing)
             try {
                 dictionary = new DictionaryBuilder(fileName);
             } catch (FileNotFoundException e) {
-                System.out.println("File " + fileName +" is not found" + " (it will be started with empty dictionary)");
+                out.println("File " + fileName +" is not found" + " (it will be started with empty dictionary)");
                 dictionary = new DictionaryBuilder(991);
             }
         } else {
-            System.out.println("Please input provided file, otherwise starting with empty dictionary.");
+            if (scriptName == null)
+                out.println("Please input provided file, otherwise starting with empty dictionary.");
             dictionary = new DictionaryBuilder(991);
         }
 
-        System.out.println("Welcome to the Dictionary Builder CLI.");
-        printCommand();
+        WriteAheadLog wal = null;
+        if (walName != null) {
+            // replay the changes made after the base file was written
+            try {
+                long baseEpoch = fromSnapshot ? WriteAheadLog.snapshotEpoch(Path.of(snapshotName)) : 0;
+                wal = new WriteAheadLog(Path.of(walName), syncPolicy);
+                if (loading == null)
+                    replayLog(wal, dictionary, baseEpoch);
+                // otherwise after the file is loaded (see finishLoading)
+            } catch (IOException e) {
+                out.println("Write-ahead log " + walName + " cannot be used: " + e.getMessage());
+                wal = null;
+            }
+        }
+
+        // script mode: commands come from a file (or "-" = stdin), no banner and no prompt
+        boolean script = scriptName != null;
+        BufferedReader in;
+        try {
+            in = !script || scriptName.equals("-")
+                    ? new BufferedReader(new InputStreamReader(System.in), INPUT_BUFFER_SIZE)
+                    : Files.newBufferedReader(Path.of(scriptName));
+        } catch (IOException e) {
+            out.println("Script " + scriptName + " cannot be read: " + e.getMessage());
+            out.flush();
+            closeLog(wal);
+            return;
+        }
+        // hash table statistics over JMX, read on demand between two commands
+        // (shown[0] is the dictionary they come from, null while a file is loading)
+        ReentrantLock commandLock = new ReentrantLock();
+        DictionaryBuilder[] shown = {loading == null ? dictionary : null};
+        DictionaryStats jmxStats = new DictionaryStats();
+        jmxStats.track(() -> shown[0], commandLock);
+        try {
+            jmxStats.register("DictionaryShell");
+        } catch (JMException e) {
+            out.println("Statistics MBean cannot be registered: " + e.getMessage());
+        }
+
+        if (!script) {
+            out.println("Welcome to the Dictionary Builder CLI.");
+            printCommand();
+        }
 
-        Scanner in = new Scanner(System.in);
         while (true) {
-            System.out.print("> ");
-            if (!in.hasNextLine())
+            String line;
+            try {
+                if (!script)
+                    out.print("> ");
+                if (!in.ready()) {
+                    commitLog(wal);
+                    out.flush();
+                }
+                // nothing more is waiting --> end of a batch: one commit for all its changes
+                // (one fsync with --fsync always), then show its output
+                line = in.readLine();
+            } catch (IOException e) {
+                out.println("Error reading commands: " + e.getMessage());
                 break;
-            String line = in.nextLine().trim();
+            }
+            if (line == null)
+                break;
+            line = line.trim();
             if (line.isEmpty())
                 continue;
 
             String[] parts = line.split("\\s+", 2);
             String command = parts[0].toLowerCase();
 
+            if (loading != null && (loading.isDone() || mustWaitForLoad(command, staleOk, wal != null))) {
+                dictionary = finishLoading(loading, wal);
+                loading = null;
+            }
+            DictionaryBuilder view = dictionary;
+            // what list, range, page, prefix, top and stats read
+            boolean locked = false;
+            boolean copy = loading != null && readsSnapshot(command);
+            if (copy) {
+                view = loading.snapshot();
+                // a copy of the words loaded so far: the loader goes on while it is printed
+            } else if (loading != null) {
+                loading.lock();
+                locked = true;
+                // the partial dictionary is read between two buffers of the loader
+            }
+            commandLock.lock();
             try {
                 switch (command) {
                         // get Frequency of word in dictionary
                         // print
                         // if not found --> print error
                     case "search": {
-                        if (parts.length < 2) { System.out.println("Usage: search <word>");
+                        if (parts.length < 2) { out.println("Usage: search <word>");
                             break;
                         }
                         String wordDictionary = parts[1];
-                        int frequency = dictionary.getFrequency(wordDictionary);
+                        int frequency = loading != null ? loading.frequency(wordDictionary) : dictionary.getFrequency(wordDictionary);
                         if (frequency > 0) {
-                            System.out.println(frequency + " instance(s) of \"" + wordDictionary.toLowerCase() + "\" found.");
+                            out.println(frequency + " instance(s) of \"" + wordDictionary.toLowerCase() + "\" found.");
                         }else
-                            System.out.println("\"" + wordDictionary.toLowerCase() + "\" not found.");
+                            out.println("\"" + wordDictionary.toLowerCase() + "\" not found.");
                         break;
                     }
                         // If word is not existed, add new word
                         // If word is existed, increase count
                     case "add": {
                         if (parts.length < 2) {
-                            System.out.println("Usage: add <word>");
+                            out.println("Usage: add <word>");
                             break;
                         }
                         String wordDictionary = parts[1];
+                        if (loading != null) {
+                            // kept aside until the file is loaded (and only logged then)
+                            loading.add(wordDictionary);
+                            out.println("\"" + wordDictionary.toLowerCase() + "\" will be added when loading finishes.");
+                            break;
+                        }
                         int before = dictionary.getFrequency(wordDictionary);
                         dictionary.addWord(wordDictionary);
+                        if (wal != null)
+                            wal.logAdd(wordDictionary);
+                        // committed at the end of the batch
                         if (before == 0){
-                            System.out.println("\"" + wordDictionary.toLowerCase() + "\" added.");
+                            out.println("\"" + wordDictionary.toLowerCase() + "\" added.");
                         }
                         else
-                            System.out.println("\"" + wordDictionary.toLowerCase() + "\" count incremented.");
+                            out.println("\"" + wordDictionary.toLowerCase() + "\" count incremented.");
                         break;
                     }
                         // delete word in Dictionary
                         // if that word is not existed, throw and print error
                     case "delete": {
                         if (parts.length < 2) {
-                            System.out.println("Usage: delete <word>");
+                            out.println("Usage: delete <word>");
                             break;
                         }
                         String wordDictionary = parts[1];
+                        if (loading != null) {
+                            loading.remove(wordDictionary);
+                            out.println("\"" + wordDictionary.toLowerCase() + "\" will be deleted when loading finishes.");
+                            break;
+                        }
                         dictionary.removeWord(wordDictionary);
-                        System.out.println("\"" + wordDictionary.toLowerCase() + "\" deleted.");
+                        if (wal != null)
+                            wal.logRemove(wordDictionary);
+                        // committed at the end of the batch
+                        out.println("\"" + wordDictionary.toLowerCase() + "\" deleted.");
                         break;
                     }
                         // print every word in dictionary
                     case "list": {
-                        ArrayList<String> words = dictionary.getAllWords();
-                        for (String wordDictionary : words)
-                            System.out.println(wordDictionary);
+                        view.forEachWord(out::println);
+                        // streamed from the sorted index, no copy of the word list
+                        break;
+                    }
+                        // print the words w with from <= w < to
+                    case "range": {
+                        String[] bounds = parts.length < 2 ? new String[0] : parts[1].trim().split("\\s+");
+                        if (bounds.length != 2) {
+                            out.println("Usage: range <from> <to>");
+                            break;
+                        }
+                        for (String wordDictionary : view.getWordsBetween(bounds[0].toLowerCase(), bounds[1].toLowerCase()))
+                            out.println(wordDictionary);
+                        break;
+                    }
+                        // print at most limit words, starting at position offset of the sorted list
+                    case "page": {
+                        String[] numbers = parts.length < 2 ? new String[0] : parts[1].trim().split("\\s+");
+                        if (numbers.length != 2) {
+                            out.println("Usage: page <offset> <limit>");
+                            break;
+                        }
+                        for (String wordDictionary : view.getWords(Integer.parseInt(numbers[0]), Integer.parseInt(numbers[1])))
+                            out.println(wordDictionary);
+                        break;
+                    }
+                        // print the words starting with a prefix and their counts
+                    case "prefix": {
+                        String[] prefixArgs = parts.length < 2 ? new String[0] : parts[1].trim().split("\\s+");
+                        if (prefixArgs.length < 1 || prefixArgs.length > 2) {
+                            out.println("Usage: prefix <p> [limit]");
+                            break;
+                        }
+                        int limit = prefixArgs.length == 2 ? Integer.parseInt(prefixArgs[1]) : Integer.MAX_VALUE;
+                        for (DictionaryEntry entry : view.getWordsWithPrefix(prefixArgs[0], limit))
+                            out.println(entry.getWord() + ": " + entry.getCount());
+                        break;
+                    }
+                        // print the k most frequent words with their counts
+                    case "top": {
+                        if (parts.length < 2) {
+                            out.println("Usage: top <k>");
+                            break;
+                        }
+                        for (DictionaryEntry entry : view.topK(Integer.parseInt(parts[1].trim())))
+                            out.println(entry.getWord() + ": " + entry.getCount());
+                        break;
+                    }
+                        // write the dictionary to a binary snapshot
+                    case "save": {
+                        if (parts.length < 2) {
+                            out.println("Usage: save <file>");
+                            break;
+                        }
+                        dictionary.save(Path.of(parts[1].trim()));
+                        out.println("Saved " + dictionary.getUniqueWords() + " words to " + parts[1].trim() + ".");
+                        break;
+                    }
+                        // replace the dictionary with a binary snapshot
+                    case "load": {
+                        if (parts.length < 2) {
+                            out.println("Usage: load <file>");
+                            break;
+                        }
+                        String file = parts[1].trim();
+                        DictionaryBuilder loaded = DictionaryBuilder.load(Path.of(file));
+                        if (wal != null) {
+                            // the log holds changes to the old dictionary: start it again on top of
+                            // the loaded one, so a restart replays it on the right base
+                            try {
+                                wal.compact(loaded, Path.of(file));
+                            } catch (IOException | RuntimeException e) {
+                                loaded.close();
+                                throw e;
+                            }
+                            snapshotName = file;
+                        }
+                        dictionary.close();
+                        // an OFF_HEAP dictionary only frees its native memory here
+                        dictionary = loaded;
+                        out.println("Loaded " + dictionary.getUniqueWords() + " words from " + file
+                                + (wal != null ? " (start with --snapshot " + file + ")." : "."));
+                        break;
+                    }
+                        // fold the write-ahead log into a fresh snapshot and empty the log
+                    case "compact": {
+                        if (wal == null) {
+                            out.println("No write-ahead log (start with --wal <file>).");
+                            break;
+                        }
+                        String base = parts.length >= 2 ? parts[1].trim() : snapshotName;
+                        if (base == null) {
+                            out.println("Usage: compact <file>");
+                            break;
+                        }
+                        wal.compact(dictionary, Path.of(base));
+                        snapshotName = base;
+                        out.println("Compacted into " + base + " (start with --snapshot " + base + ").");
                         break;
                     }
                         // print statistics
                     case "stats": {
-                        System.out.println("Total words: " + dictionary.getTotalWords());
-                        System.out.println("Total unique words: " + dictionary.getUniqueWords());
-                        System.out.printf("Estimated load factor: %.2f%n", dictionary.estimatedLoadFactor());
-                        System.out.println("Table capacity (4k+3 prime): " + dictionary.capacity());
+                        out.println("Total words: " + view.getTotalWords());
+                        out.println("Total unique words: " + view.getUniqueWords());
+                        out.printf("Estimated load factor: %.2f%n", view.estimatedLoadFactor());
+                        out.println("Table capacity (4k+3 prime): " + view.capacity());
+                        out.println(view.tableStats());
+                        // chain lengths and sampled probes
+                        if (loading != null)
+                            out.println(loading.progress() + ", " + loading.pendingCount() + " pending change(s)");
+                        if (wal != null)
+                            out.println("Write-ahead log: " + wal.size() + " bytes, " + wal.syncCount() + " sync(s)");
                         break;
                     }
                     case "exit":
-                        System.out.println("Quitting...");
+                        if (loading != null)
+                            loading.cancel();
+                        closeLog(wal);
+                        unregister(jmxStats);
+                        out.println("Quitting...");
+                        out.flush();
                         return;
                     default:
-                        System.out.println("Unknown command: " + command);
+                        out.println("Unknown command: " + command);
                         printCommand();
                 }
             } catch (DictionaryEntryNotFoundException ex) {
-                System.out.println(ex.getMessage());
+                out.println(ex.getMessage());
             } catch (Exception ex) {
-                System.out.println("Error: " + ex.getMessage());
+                out.println("Error: " + ex.getMessage());
+            } finally {
+                if (locked)
+                    loading.unlock();
+                if (copy)
+                    view.close();
+                shown[0] = loading == null ? dictionary : null;
+                commandLock.unlock();
             }
         }
+        if (loading != null) {
+            // end of input: changes made while loading only need the file if they are logged
+            if (wal != null)
+                finishLoading(loading, wal);
+            else
+                loading.cancel();
+        }
+        closeLog(wal);
+        unregister(jmxStats);
+        out.flush();
+    }
+
+    // reads that work on a snapshot while the file is loading (a long listing does not stop the loader)
+    private static boolean readsSnapshot(String command) {
+        switch (command) {
+            case "list": case "range": case "page": case "prefix": case "top": case "stats":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // commands that need the whole file: the other reads too, unless --stale-ok lets them see partial data
+    private static boolean mustWaitForLoad(String command, boolean staleOk, boolean logging) {
+        switch (command) {
+            case "search": case "list": case "range": case "page": case "prefix": case "top":
+                return !staleOk;
+            case "save": case "load": case "compact":
+                return true;
+            case "exit":
+                return logging;
+                // the pending changes still have to reach the log
+            default:
+                return false;
+        }
+    }
+
+    // wait for the background load, replay the write-ahead log over it,
+    // then apply (and log) the changes made in the meantime
+    private static DictionaryBuilder finishLoading(BackgroundLoader loading, WriteAheadLog wal) {
+        if (!loading.isDone()) {
+            out.println("Waiting for " + loading.filename() + " to finish loading...");
+            out.flush();
+        }
+        DictionaryBuilder dictionary = loading.await();
+        if (loading.failure() != null)
+            out.println("Loading " + loading.filename() + " stopped early: " + loading.failure().getMessage());
+        else
+            out.println(loading.progress());
+        try {
+            if (wal != null)
+                replayLog(wal, dictionary, 0);
+            for (String word : loading.applyPending(wal))
+                out.println("\"" + word.toLowerCase() + "\" not found.");
+        } catch (IOException e) {
+            out.println("Error: " + e.getMessage());
+        }
+        return dictionary;
+    }
+
+    private static void replayLog(WriteAheadLog wal, DictionaryBuilder dictionary, long baseEpoch) throws IOException {
+        long replayed = wal.replay(dictionary, baseEpoch);
+        out.println("Replayed " + replayed + " change(s) from " + wal.path() + ".");
+    }
+
+    private static WriteAheadLog.SyncPolicy parseSyncPolicy(String name) {
+        switch (name.toLowerCase()) {
+            case "always": return WriteAheadLog.SyncPolicy.EVERY_COMMIT;
+            case "periodic": return WriteAheadLog.SyncPolicy.PERIODIC;
+            case "never": return WriteAheadLog.SyncPolicy.NEVER;
+            default:
+                out.println("Unknown --fsync value " + name + ", using always.");
+                return WriteAheadLog.SyncPolicy.EVERY_COMMIT;
+        }
+    }
+
+    private static void unregister(DictionaryStats jmxStats) {
+        try {
+            jmxStats.unregister();
+        } catch (JMException e) {
+            out.println("Error removing the statistics MBean: " + e.getMessage());
+        }
+    }
+
+    private static void commitLog(WriteAheadLog wal) {
+        if (wal == null)
+            return;
+        try {
+            wal.commit();
+        } catch (IOException e) {
+            out.println("Error writing the write-ahead log: " + e.getMessage());
+        }
+    }
+
+    private static void closeLog(WriteAheadLog wal) {
+        if (wal == null)
+            return;
+        try {
+            wal.close();
+        } catch (IOException e) {
+            out.println("Error closing the write-ahead log: " + e.getMessage());
+        }
     }
 }
@@ -0,0 +1,265 @@
+package org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary snapshot of a DictionaryBuilder, so a restart does not have to tokenize the text again.
+ * Layout (big-endian):
+ *   header: int magic "DICT", int version, int backend, double maxLoadFactor,
+ *           int capacity, int totalWords, int uniqueWords, long logEpoch (version 2),
+ *           int hashKind, long hashSeed (version 3)
+ *   then uniqueWords entries: int hash, int count, int length, length bytes (the word, ASCII)
+ * Normalized words only have [a-z0-9' ] chars, so one byte per char is enough.
+ * Loading maps the file into memory and puts every entry into a table of the saved capacity
+ * with its saved hash and count (no re-hashing, no normalization, one add per word).
+ * The header is checked against the file length first, so a corrupt one fails with an
+ * IOException instead of a huge allocation; a capacity more than 4 times the word count
+ * (and above 65536) is not trusted, the table is then made for the words instead.
+ * logEpoch is the WriteAheadLog epoch the snapshot already contains (0 = none),
+ * so a log that was folded into the snapshot is not replayed a second time.
+ * hashKind is the HashStrategy of the saved hashes (0 = polynomial, 1 = seeded with hashSeed,
+ * 2 = another one, which load cannot rebuild); version 1 and 2 files were always polynomial.
+ * Loading with a different strategy hashes every word again.
+ */
+final class DictionarySnapshot {
+
+    private static final int MAGIC = 0x44494354;
+    // "DICT"
+    private static final int VERSION = 3;
+    private static final int HEADER_BYTES_V1 = 4 + 4 + 4 + 8 + 4 + 4 + 4;
+    // largest part of the file mapped at once
+    private static final long MAP_WINDOW = 1L << 30;
+    // hash, count, length and at least one char
+    private static final int MIN_ENTRY_BYTES = 4 + 4 + 4 + 1;
+    // a saved capacity up to this is always used as it is
+    private static final int MIN_TRUSTED_CAPACITY = 1 << 16;
+    private static final int HASH_POLYNOMIAL = 0;
+    private static final int HASH_SEEDED = 1;
+    private static final int HASH_CUSTOM = 2;
+
+    private DictionarySnapshot() {
+    }
+
+    static void save(DictionaryBuilder dictionary, Path path) throws IOException {
+        save(dictionary, path, 0);
+    }
+
+    static void save(DictionaryBuilder dictionary, Path path, long logEpoch) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        // write next to the target, force it to disk, then rename: a crash never leaves half a
+        // snapshot, and once save returns the new snapshot is on disk (WriteAheadLog.compact
+        // empties the log right after)
+        try {
+            write(dictionary, tmp, logEpoch);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        syncDirectory(path);
+        // the rename itself is only durable once the directory is
+    }
+
+    private static void write(DictionaryBuilder dictionary, Path tmp, long logEpoch) throws IOException {
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(dictionary.backend().ordinal());
+            out.writeDouble(dictionary.maxLoadFactor());
+            out.writeInt(dictionary.capacity());
+            out.writeInt(dictionary.getTotalWords());
+            out.writeInt(dictionary.getUniqueWords());
+            out.writeLong(logEpoch);
+            HashStrategy strategy = dictionary.hashStrategy();
+            if (strategy instanceof SeededHash seeded) {
+                out.writeInt(HASH_SEEDED);
+                out.writeLong(seeded.seed());
+            } else {
+                out.writeInt(strategy == HashStrategy.polynomial() ? HASH_POLYNOMIAL : HASH_CUSTOM);
+                out.writeLong(0);
+            }
+            IOException[] error = {null};
+            dictionary.forEachEntry((word, hash, count) -> {
+                if (error[0] != null)
+                    return;
+                try {
+                    writeEntry(out, word, hash, count);
+                } catch (IOException e) {
+                    error[0] = e;
+                }
+            });
+            if (error[0] != null)
+                throw error[0];
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    // fsync the directory that holds path, so a rename into it survives a crash
+    private static void syncDirectory(Path path) throws IOException {
+        Path dir = path.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private static void writeEntry(DataOutputStream out, String word, int hash, int count) throws IOException {
+        int len = word.length();
+        out.writeInt(hash);
+        out.writeInt(count);
+        out.writeInt(len);
+        for (int i = 0; i < len; i++) {
+            char c = word.charAt(i);
+            if (c > 0x7f)
+                throw new IOException("word is not normalized: " + word);
+            out.write(c);
+        }
+    }
+
+    // WriteAheadLog epoch stored in the snapshot header (0 for version 1 files)
+    static long logEpoch(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedReader in = new MappedReader(channel);
+            int version = readVersion(in, path);
+            if (version < 2)
+                return 0;
+            in.buffer.position(HEADER_BYTES_V1);
+            in.need(8);
+            return in.buffer.getLong();
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(path.toString());
+        }
+    }
+
+    private static int readVersion(MappedReader in, Path path) throws IOException {
+        in.need(HEADER_BYTES_V1);
+        if (in.buffer.getInt() != MAGIC)
+            throw new IOException(path + " is not a dictionary snapshot");
+        int version = in.buffer.getInt();
+        if (version < 1 || version > VERSION)
+            throw new IOException("unsupported snapshot version " + version);
+        return version;
+    }
+
+    // hashStrategy null --> the strategy the snapshot was saved with
+    static DictionaryBuilder load(Path path, HashStrategy hashStrategy) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedReader in = new MappedReader(channel);
+            int version = readVersion(in, path);
+            int backendIndex = in.buffer.getInt();
+            DictionaryBuilder.Backend[] backends = DictionaryBuilder.Backend.values();
+            if (backendIndex < 0 || backendIndex >= backends.length)
+                throw new IOException("unknown backend " + backendIndex);
+            double maxLoadFactor = in.buffer.getDouble();
+            int capacity = in.buffer.getInt();
+            int totalWords = in.buffer.getInt();
+            int uniqueWords = in.buffer.getInt();
+            if (capacity < 3 || totalWords < 0 || uniqueWords < 0 || !(maxLoadFactor > 0))
+                throw new IOException("corrupt snapshot header");
+            if (version >= 2) {
+                in.need(8);
+                in.buffer.getLong();
+                // logEpoch, only needed by WriteAheadLog
+            }
+            HashStrategy saved = HashStrategy.polynomial();
+            if (version >= 3) {
+                in.need(12);
+                int hashKind = in.buffer.getInt();
+                long hashSeed = in.buffer.getLong();
+                if (hashKind == HASH_SEEDED)
+                    saved = HashStrategy.seeded(hashSeed);
+                else if (hashKind == HASH_CUSTOM)
+                    saved = null;
+                else if (hashKind != HASH_POLYNOMIAL)
+                    throw new IOException("unknown hash strategy " + hashKind);
+            }
+            checkHeader(in, capacity, totalWords, uniqueWords);
+            if (hashStrategy == null && saved == null)
+                throw new IOException(path + " was saved with a custom hash strategy, load it with load(path, hashStrategy)");
+            HashStrategy strategy = hashStrategy == null ? saved : hashStrategy;
+            boolean rehash = !strategy.equals(saved);
+
+            int tableCapacity = (int) Math.min(capacity, PrimeUtils.next4kPlus3Prime(Math.max(MIN_TRUSTED_CAPACITY, 4L * uniqueWords)));
+            // a capacity far above what the entries need (a table that shrank a lot, or a bad
+            // header) is not allocated: the table grows again if it has to
+            DictionaryBuilder dictionary = DictionaryBuilder.withCapacity(backends[backendIndex], tableCapacity, maxLoadFactor, strategy);
+            char[] chars = new char[64];
+            for (int i = 0; i < uniqueWords; i++) {
+                in.need(12);
+                int hash = in.buffer.getInt();
+                int count = in.buffer.getInt();
+                int len = in.buffer.getInt();
+                if (len <= 0 || count <= 0)
+                    throw new IOException("corrupt snapshot entry " + i);
+                in.need(len);
+                if (chars.length < len)
+                    chars = new char[Math.max(len, chars.length * 2)];
+                for (int j = 0; j < len; j++)
+                    chars[j] = (char) (in.buffer.get() & 0xff);
+                dictionary.addCount(chars, len, rehash ? strategy.hash(chars, len) : hash, count);
+            }
+            if (dictionary.getTotalWords() != totalWords || dictionary.getUniqueWords() != uniqueWords)
+                throw new IOException("corrupt snapshot: counts do not match the header");
+            return dictionary;
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(path.toString());
+        }
+    }
+
+    // the header is read, check its sizes against the file before anything is allocated
+    private static void checkHeader(MappedReader in, int capacity, int totalWords, int uniqueWords) throws IOException {
+        if (capacity % 4 != 3 || !PrimeUtils.isPrime(capacity))
+            throw new IOException("corrupt snapshot header: capacity " + capacity + " is not a 4k+3 prime");
+        long room = (in.size - in.buffer.position()) / MIN_ENTRY_BYTES;
+        if (uniqueWords > room)
+            throw new IOException("corrupt snapshot header: " + uniqueWords + " words cannot fit in a file of " + in.size + " bytes");
+        if (totalWords < uniqueWords)
+            throw new IOException("corrupt snapshot header: totalWords " + totalWords + " is less than uniqueWords " + uniqueWords);
+    }
+
+    // reads a file through a memory-mapped window that moves forward when needed
+    // (one mapping is limited to 2 GB)
+    private static final class MappedReader {
+        private final FileChannel channel;
+        private final long size;
+        private long windowStart = 0;
+        MappedByteBuffer buffer;
+
+        MappedReader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            map(0);
+        }
+
+        private void map(long start) throws IOException {
+            windowStart = start;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(MAP_WINDOW, size - start));
+        }
+
+        // make sure the next n bytes are in the mapped window
+        void need(int n) throws IOException {
+            if (buffer.remaining() >= n)
+                return;
+            long position = windowStart + buffer.position();
+            if (size - position < n)
+                throw new IOException("snapshot is truncated");
+            map(position);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.example;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * MBean that publishes the statistics of a DictionaryBuilder.
+ * DictionaryBuilder is not thread-safe, so there are two ways to feed it: the thread that owns
+ * the dictionary calls refresh() from time to time and the MBean serves the last values, or
+ * track() gives it the lock that guards the dictionary and every read takes the values on demand
+ * (the bucket scan is only done again when the word counts changed or a second has passed).
+ */
+public class DictionaryStats implements DictionaryStatsMBean {
+
+    private volatile int totalWords;
+    private volatile int uniqueWords;
+    private volatile double loadFactor;
+    private volatile TableStats table = new TableStats(0, 0, new long[TableStats.HISTOGRAM_SIZE], 0, 0, 0, 0, 0, 0);
+    private volatile long lastRefreshMillis;
+    private ObjectName name;
+
+    private static final long MAX_AGE_MILLIS = 1000;
+    private volatile Supplier<DictionaryBuilder> source;
+    private volatile Lock lock;
+    private DictionaryBuilder last;
+    // dictionary of the last on-demand refresh
+
+    // take new values from dictionary (call it on the thread that uses the dictionary)
+    public void refresh(DictionaryBuilder dictionary) {
+        table = dictionary.tableStats();
+        totalWords = dictionary.getTotalWords();
+        uniqueWords = dictionary.getUniqueWords();
+        loadFactor = dictionary.estimatedLoadFactor();
+        lastRefreshMillis = System.currentTimeMillis();
+    }
+
+    // read the values on demand from source.get() (null = keep the last values) while holding lock
+    public void track(Supplier<DictionaryBuilder> source, Lock lock) {
+        this.lock = lock;
+        this.source = source;
+    }
+
+    // on-demand refresh of a tracked dictionary, called by every getter
+    private void update() {
+        Supplier<DictionaryBuilder> source = this.source;
+        if (source == null)
+            return;
+        lock.lock();
+        try {
+            DictionaryBuilder dictionary = source.get();
+            if (dictionary == null)
+                return;
+            if (dictionary != last || dictionary.getTotalWords() != totalWords || dictionary.getUniqueWords() != uniqueWords
+                    || dictionary.capacity() != table.getCapacity() || System.currentTimeMillis() - lastRefreshMillis >= MAX_AGE_MILLIS) {
+                refresh(dictionary);
+                last = dictionary;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // register with the platform MBean server as org.example:type=DictionaryStats,name=<name>
+    public void register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("org.example:type=DictionaryStats,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        this.name = objectName;
+    }
+
+    public void unregister() throws JMException {
+        if (name == null)
+            return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(name))
+            server.unregisterMBean(name);
+        name = null;
+    }
+
+    public TableStats tableStats() {
+        update();
+        return table;
+    }
+
+    @Override
+    public int getTotalWords() {
+        update();
+        return totalWords;
+    }
+
+    @Override
+    public int getUniqueWords() {
+        update();
+        return uniqueWords;
+    }
+
+    @Override
+    public int getCapacity() {
+        update();
+        return table.getCapacity();
+    }
+
+    @Override
+    public double getLoadFactor() {
+        update();
+        return loadFactor;
+    }
+
+    @Override
+    public int getMaxChainLength() {
+        update();
+        return table.getMaxChainLength();
+    }
+
+    @Override
+    public double getEmptyBucketRatio() {
+        update();
+        return table.getEmptyBucketRatio();
+    }
+
+    @Override
+    public double getAverageChainLength() {
+        update();
+        return table.getAverageChainLength();
+    }
+
+    @Override
+    public double getAverageProbesPerHit() {
+        update();
+        return table.getAverageProbesPerHit();
+    }
+
+    @Override
+    public double getAverageProbesPerMiss() {
+        update();
+        return table.getAverageProbesPerMiss();
+    }
+
+    @Override
+    public long[] getChainLengthHistogram() {
+        update();
+        return table.getChainLengthHistogram();
+    }
+
+    @Override
+    public long getLastRefreshMillis() {
+        update();
+        return lastRefreshMillis;
+    }
+}
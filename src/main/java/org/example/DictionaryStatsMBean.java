@@ -0,0 +1,32 @@
+package org.example;
+
+/**
+ * JMX view of a DictionaryBuilder (see DictionaryStats), for watching the hash quality
+ * of a running dictionary with jconsole / VisualVM or any JMX client.
+ */
+public interface DictionaryStatsMBean {
+
+    int getTotalWords();
+
+    int getUniqueWords();
+
+    int getCapacity();
+
+    double getLoadFactor();
+
+    int getMaxChainLength();
+
+    double getEmptyBucketRatio();
+
+    double getAverageChainLength();
+
+    double getAverageProbesPerHit();
+
+    double getAverageProbesPerMiss();
+
+    // buckets per chain length (the last entry: that length or more)
+    long[] getChainLengthHistogram();
+
+    // System.currentTimeMillis() of the last refresh
+    long getLastRefreshMillis();
+}
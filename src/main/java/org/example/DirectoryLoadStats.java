@@ -0,0 +1,27 @@
+package org.example;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * What loadFromDirectory did: the totals of all files (time = the whole load, wall clock)
+ * and the stats of every file (time = what its worker spent on it), in path order.
+ * Bytes are text bytes, so a .gz file counts its decompressed size.
+ */
+public class DirectoryLoadStats extends LoadStats {
+    private final Map<Path, LoadStats> files;
+
+    public DirectoryLoadStats(long bytes, long words, long nanos, Map<Path, LoadStats> files) {
+        super(bytes, words, nanos);
+        this.files = Collections.unmodifiableMap(files);
+    }
+
+    public Map<Path, LoadStats> getFileStats() { return files; }
+    public int getFileCount() { return files.size(); }
+
+    @Override
+    public String toString() {
+        return files.size() + " files, " + super.toString();
+    }
+}
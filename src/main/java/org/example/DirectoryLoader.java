@@ -0,0 +1,185 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Loads the matching files of a directory tree into a DictionaryBuilder (loadFromDirectory).
+ * Pipeline: `parallelism` workers take the next file, read it (decompressing .gz) and tokenize it
+ * into a small dictionary of their own; the finished ones go through a bounded queue to the
+ * calling thread, which merges them into the target while the workers go on with the next files.
+ * The queue holds at most `parallelism` finished files, so a slow merge makes the workers wait
+ * instead of piling up dictionaries: at most 2 * parallelism + 1 partial dictionaries are alive
+ * at once (one per worker, being filled or waiting for room, the queued ones and the one
+ * being merged).
+ * Every word ends up in the target with addCount, so the counts are the same as loading
+ * the files one by one, whatever order the files finish in.
+ */
+final class DirectoryLoader {
+
+    // header (10 bytes), empty deflate block and trailer (8 bytes)
+    private static final long GZIP_MIN_BYTES = 20;
+    private static final long MAX_DEFLATE_RATIO = 1032;
+
+    private final DictionaryBuilder target;
+    private final int parallelism;
+
+    // one finished file: its words, or why it failed
+    private record FileResult(Path file, DictionaryBuilder words, LoadStats stats, IOException failure) {
+    }
+
+    DirectoryLoader(DictionaryBuilder target, int parallelism) {
+        this.target = target;
+        this.parallelism = parallelism;
+    }
+
+    // regular files under dir whose relative path matches glob, sorted
+    static List<Path> findFiles(Path dir, String glob) throws IOException {
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        try (Stream<Path> paths = Files.walk(dir)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(p -> matcher.matches(dir.relativize(p)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    DirectoryLoadStats load(Path dir, String glob) throws IOException {
+        long start = System.nanoTime();
+        List<Path> files = findFiles(dir, glob);
+        Map<Path, LoadStats> perFile = new LinkedHashMap<>();
+        for (Path file : files)
+            perFile.put(file, null);
+        // keeps the path order, filled in as the files finish
+
+        BlockingQueue<FileResult> finished = new ArrayBlockingQueue<>(parallelism);
+        AtomicInteger next = new AtomicInteger();
+        int workers = Math.min(parallelism, Math.max(1, files.size()));
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "dictionary-directory-loader");
+            t.setDaemon(true);
+            return t;
+        });
+        for (int w = 0; w < workers; w++)
+            pool.execute(() -> work(files, next, finished));
+
+        long bytes = 0;
+        long words = 0;
+        IOException failure = null;
+        boolean complete = false;
+        try {
+            for (int done = 0; done < files.size(); done++) {
+                FileResult result = finished.take();
+                if (result.failure() != null) {
+                    failure = result.failure();
+                    break;
+                }
+                try (DictionaryBuilder partial = result.words()) {
+                    target.mergeFrom(partial);
+                }
+                perFile.put(result.file(), result.stats());
+                bytes += result.stats().getBytes();
+                words += result.stats().getWords();
+            }
+            complete = failure == null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = new IOException("interrupted while loading " + dir);
+        } finally {
+            if (complete)
+                pool.shutdown();
+            else
+                pool.shutdownNow();
+            // stop the workers (also the ones waiting for room in the queue)
+            awaitQuietly(pool);
+            for (FileResult left; (left = finished.poll()) != null; ) {
+                if (left.words() != null)
+                    left.words().close();
+                // results nobody merged (after a failure) may hold native memory
+            }
+        }
+        if (failure != null)
+            throw failure;
+        return new DirectoryLoadStats(bytes, words, System.nanoTime() - start, perFile);
+    }
+
+    // worker: take files until there are none left (or the load is cancelled)
+    private void work(List<Path> files, AtomicInteger next, BlockingQueue<FileResult> finished) {
+        int i;
+        while ((i = next.getAndIncrement()) < files.size()) {
+            Path file = files.get(i);
+            FileResult result;
+            DictionaryBuilder partial = null;
+            try {
+                partial = target.emptyCopy((int) Math.min(Integer.MAX_VALUE / 2, Math.max(1, textBytes(file) / 100)));
+                LoadStats stats = partial.ingestFile(file.toString());
+                result = new FileResult(file, partial, stats, null);
+            } catch (IOException | RuntimeException e) {
+                if (partial != null)
+                    partial.close();
+                result = new FileResult(file, null, null, new IOException("cannot load " + file + ": " + e.getMessage(), e));
+            }
+            try {
+                finished.put(result);
+            } catch (InterruptedException e) {
+                if (result.words() != null)
+                    result.words().close();
+                return;
+                // the load was cancelled
+            }
+            if (result.failure() != null)
+                return;
+        }
+    }
+
+    // size of the text in a file, to size its dictionary: for a .gz file the uncompressed size
+    // from the gzip trailer (ISIZE: last 4 bytes, little-endian, modulo 4 GB), never more than
+    // deflate can expand the file to (a bit over 1000 times)
+    static long textBytes(Path file) throws IOException {
+        long size = Files.size(file);
+        if (!file.getFileName().toString().endsWith(".gz") || size < GZIP_MIN_BYTES)
+            return size;
+        ByteBuffer trailer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (trailer.hasRemaining()) {
+                if (channel.read(trailer, size - 4 + trailer.position()) < 0)
+                    return size;
+            }
+        }
+        long uncompressed = Integer.toUnsignedLong(trailer.getInt(0));
+        return Math.max(size, Math.min(uncompressed, size * MAX_DEFLATE_RATIO));
+    }
+
+    private static void awaitQuietly(ExecutorService pool) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (pool.awaitTermination(1, TimeUnit.MINUTES))
+                    break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+                pool.shutdownNow();
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+}
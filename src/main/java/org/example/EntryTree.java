@@ -0,0 +1,193 @@
+package org.example;
+
+import java.util.function.Consumer;
+
+/**
+ * Bucket of ChainedWordTable once its chain got too long: an AVL tree of the entries ordered
+ * by hash, then by word, so a lookup compares with O(log n) entries instead of the whole chain
+ * (the same idea as the tree bins of java.util.HashMap).
+ * Even words that all have the same hash only cost a binary search over their chars.
+ */
+final class EntryTree {
+
+    private static final class TreeNode {
+        final DictionaryEntry entry;
+        TreeNode left;
+        TreeNode right;
+        int height = 1;
+
+        TreeNode(DictionaryEntry entry) {
+            this.entry = entry;
+        }
+    }
+
+    private TreeNode root;
+    private int size = 0;
+
+    int size() {
+        return size;
+    }
+
+    // levels of the tree = entries compared by the longest lookup
+    int height() {
+        return height(root);
+    }
+
+    DictionaryEntry find(char[] key, int len, int hash) {
+        TreeNode node = root;
+        while (node != null) {
+            int c = compare(key, len, hash, node.entry);
+            if (c == 0)
+                return node.entry;
+            node = c < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    // entries compared until the key is found (negative if it is not there)
+    int probes(char[] key, int len, int hash) {
+        int n = 0;
+        TreeNode node = root;
+        while (node != null) {
+            n++;
+            int c = compare(key, len, hash, node.entry);
+            if (c == 0)
+                return n;
+            node = c < 0 ? node.left : node.right;
+        }
+        return -n;
+    }
+
+    // add an entry whose word is not in the tree yet
+    void insert(DictionaryEntry entry) {
+        root = insert(root, entry);
+        size++;
+    }
+
+    private static TreeNode insert(TreeNode node, DictionaryEntry entry) {
+        if (node == null)
+            return new TreeNode(entry);
+        if (compare(entry, node.entry) < 0)
+            node.left = insert(node.left, entry);
+        else
+            node.right = insert(node.right, entry);
+        return balance(node);
+    }
+
+    // remove the key, return its entry (null if it was not there)
+    DictionaryEntry remove(char[] key, int len, int hash) {
+        DictionaryEntry[] removed = new DictionaryEntry[1];
+        root = remove(root, key, len, hash, removed);
+        if (removed[0] != null)
+            size--;
+        return removed[0];
+    }
+
+    private static TreeNode remove(TreeNode node, char[] key, int len, int hash, DictionaryEntry[] removed) {
+        if (node == null)
+            return null;
+        int c = compare(key, len, hash, node.entry);
+        if (c < 0) {
+            node.left = remove(node.left, key, len, hash, removed);
+        } else if (c > 0) {
+            node.right = remove(node.right, key, len, hash, removed);
+        } else {
+            removed[0] = node.entry;
+            if (node.left == null)
+                return node.right;
+            if (node.right == null)
+                return node.left;
+            // two children --> the smallest node of the right subtree takes its place
+            TreeNode successor = node.right;
+            while (successor.left != null)
+                successor = successor.left;
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private static TreeNode removeMin(TreeNode node) {
+        if (node.left == null)
+            return node.right;
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    // visit every entry in tree order
+    void forEach(Consumer<DictionaryEntry> action) {
+        forEach(root, action);
+    }
+
+    private static void forEach(TreeNode node, Consumer<DictionaryEntry> action) {
+        while (node != null) {
+            forEach(node.left, action);
+            action.accept(node.entry);
+            node = node.right;
+        }
+    }
+
+    private static int height(TreeNode node) {
+        return node == null ? 0 : node.height;
+    }
+
+    // restore the AVL property (subtree heights differ by at most 1) after an insert or remove below node
+    private static TreeNode balance(TreeNode node) {
+        int diff = height(node.left) - height(node.right);
+        if (diff > 1) {
+            if (height(node.left.left) < height(node.left.right))
+                node.left = rotateLeft(node.left);
+            node = rotateRight(node);
+        } else if (diff < -1) {
+            if (height(node.right.right) < height(node.right.left))
+                node.right = rotateRight(node.right);
+            node = rotateLeft(node);
+        } else {
+            update(node);
+        }
+        return node;
+    }
+
+    private static TreeNode rotateRight(TreeNode node) {
+        TreeNode left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static TreeNode rotateLeft(TreeNode node) {
+        TreeNode right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(TreeNode node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    // order of the key against entry: by hash, then by the chars
+    private static int compare(char[] key, int len, int hash, DictionaryEntry entry) {
+        if (hash != entry.hash())
+            return Integer.compare(hash, entry.hash());
+        String word = entry.getWord();
+        int n = Math.min(len, word.length());
+        for (int i = 0; i < n; i++) {
+            char c = word.charAt(i);
+            if (key[i] != c)
+                return key[i] - c;
+        }
+        return len - word.length();
+    }
+
+    private static int compare(DictionaryEntry a, DictionaryEntry b) {
+        if (a.hash() != b.hash())
+            return Integer.compare(a.hash(), b.hash());
+        return a.getWord().compareTo(b.getWord());
+    }
+}
@@ -34,6 +34,12 @@ public class GenericLinkedList<E> implements Iterable<E> {
         return size == 0;
     }
 
+    // drop every node of the list
+    public void clear(){
+        head = null;
+        size = 0;
+    }
+
     public void addFirst(E element){
         Node<E> node = new Node<>(element);
         node.next = head;
@@ -100,6 +106,55 @@ public class GenericLinkedList<E> implements Iterable<E> {
     @FunctionalInterface
     public interface Visitor<E> { void accept(E element); }
 
+    // decides whether an element is the one we look for
+    // (lets callers search without building a probe element)
+    @FunctionalInterface
+    public interface Matcher<E> { boolean matches(E element); }
+
+    // first element accepted by matcher, null if none
+    public E findMatch(Matcher<E> matcher) {
+        for (Node<E> current = head; current != null; current = current.next) {
+            if (matcher.matches(current.data))
+                return current.data;
+        }
+        return null;
+    }
+
+    // like findMatch, but the node found is moved to the head of the list,
+    // so elements that are looked up often end up at the front
+    public E findMatchMoveToFront(Matcher<E> matcher) {
+        Node<E> previous = null;
+        for (Node<E> current = head; current != null; current = current.next) {
+            if (matcher.matches(current.data)) {
+                if (previous != null) {
+                    previous.next = current.next;
+                    current.next = head;
+                    head = current;
+                }
+                return current.data;
+            }
+            previous = current;
+        }
+        return null;
+    }
+
+    // remove the first element accepted by matcher, return it (null if none)
+    public E removeMatch(Matcher<E> matcher) {
+        Node<E> previous = null;
+        for (Node<E> current = head; current != null; current = current.next) {
+            if (matcher.matches(current.data)) {
+                if (previous == null)
+                    head = current.next;
+                else
+                    previous.next = current.next;
+                size--;
+                return current.data;
+            }
+            previous = current;
+        }
+        return null;
+    }
+
     public void forEach(Visitor<E> value) {
         for (Node<E> current = head; current != null; current = current.next) {
             value.accept(current.data);
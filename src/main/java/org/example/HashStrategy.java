@@ -0,0 +1,33 @@
+package org.example;
+
+import java.security.SecureRandom;
+
+/**
+ * How a dictionary hashes its normalized words.
+ * polynomial() is the classic String.hashCode: cheap, but anyone can build any number of words
+ * with the same hash (e.g. "c0" and "an" collide, so every word made of such pairs does), and
+ * all of them end up in one bucket.
+ * seeded(seed) mixes the chars with a secret seed, so colliding words cannot be prepared
+ * without knowing the seed; DictionaryBuilder uses one with a random seed by default.
+ * Snapshots remember the built-in strategy they were saved with (see DictionarySnapshot).
+ */
+public interface HashStrategy {
+
+    // hash of the normalized word key[0..len); the same chars must always give the same hash
+    int hash(char[] key, int len);
+
+    // String.hashCode of the word (the hash used before strategies were pluggable)
+    static HashStrategy polynomial() {
+        return PolynomialHash.INSTANCE;
+    }
+
+    // wyhash-style mix of 8 chars per step with the given seed
+    static HashStrategy seeded(long seed) {
+        return new SeededHash(seed);
+    }
+
+    // seeded() with a seed nobody can guess
+    static HashStrategy randomSeeded() {
+        return new SeededHash(new SecureRandom().nextLong());
+    }
+}
@@ -0,0 +1,34 @@
+package org.example;
+
+/**
+ * What one file load did: bytes read, words added and time spent.
+ */
+public class LoadStats {
+    private final long bytes;
+    private final long words;
+    private final long nanos;
+
+    public LoadStats(long bytes, long words, long nanos) {
+        this.bytes = bytes;
+        this.words = words;
+        this.nanos = nanos;
+    }
+
+    public long getBytes() { return bytes; }
+    public long getWords() { return words; }
+    public long getNanos() { return nanos; }
+
+    public double getSeconds() {
+        return nanos / 1e9;
+    }
+
+    // throughput in MB/s (1 MB = 1024 * 1024 bytes)
+    public double getMegabytesPerSecond() {
+        return nanos == 0 ? 0.0 : (bytes / (1024.0 * 1024.0)) / getSeconds();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d bytes, %d words in %.3f s (%.1f MB/s)", bytes, words, getSeconds(), getMegabytesPerSecond());
+    }
+}
@@ -0,0 +1,212 @@
+package org.example;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Off-heap storage (Foreign Function &amp; Memory API): the slot array and the word bytes live in
+ * native memory, so a huge vocabulary is a few big segments instead of millions of heap objects
+ * for the GC to trace.
+ * Slot layout (16 bytes): long key offset (EMPTY / TOMBSTONE / offset in the key segment),
+ * int hash, int count. Key layout: int length, then one byte per char (normalized words are ASCII).
+ * Probing and incremental rebuilds are done by OpenAddressingTable; like in ArenaWordTable,
+ * removed words stay in the key segment until a rebuild, which also starts once they outgrow
+ * the live words. Every segment has its own shared arena, which is closed as soon as the segment
+ * is replaced (rebuild, key segment growth) and by close(); the table cannot be used after close().
+ */
+final class OffHeapWordTable extends OpenAddressingTable {
+
+    OffHeapWordTable(int capacity, double maxLoadFactor) {
+        super(new NativeSlots(capacity, 1024), maxLoadFactor);
+    }
+
+    private static final class NativeSlots extends Slots {
+
+        private static final long EMPTY_OFFSET = -1;
+        private static final long TOMBSTONE = -2;
+        private static final long SLOT_BYTES = 16;
+        private static final long HASH = 8;
+        private static final long COUNT = 12;
+
+        private Arena slotArena;
+        private final MemorySegment slots;
+        private Arena keyArena;
+        private MemorySegment keys;
+        private long keysSize = 0;
+
+        private byte[] scratch = new byte[64];
+        // word bytes copied out for forEach
+
+        NativeSlots(int capacity, long keyBytes) {
+            super(capacity);
+            slotArena = Arena.ofShared();
+            // shared: a dictionary may be filled on one thread and read on another
+            slots = slotArena.allocate(SLOT_BYTES * capacity, 8);
+            slots.fill((byte) 0xff);
+            // every key offset becomes -1 = EMPTY_OFFSET
+            keyArena = Arena.ofShared();
+            keys = keyArena.allocate(Math.max(1024, keyBytes), 8);
+        }
+
+        // the slot segment and the used part of the key segment are copied into new native memory
+        // (16 bytes per slot plus the word bytes); the copy has to be closed too
+        private NativeSlots(NativeSlots from) {
+            super(from);
+            slotArena = Arena.ofShared();
+            slots = slotArena.allocate(SLOT_BYTES * capacity, 8);
+            MemorySegment.copy(from.slots, 0, slots, 0, SLOT_BYTES * capacity);
+            keyArena = Arena.ofShared();
+            keys = keyArena.allocate(Math.max(1024, from.keysSize), 8);
+            MemorySegment.copy(from.keys, 0, keys, 0, from.keysSize);
+            keysSize = from.keysSize;
+        }
+
+        private long offset(int slot) {
+            return slots.get(ValueLayout.JAVA_LONG, slot * SLOT_BYTES);
+        }
+
+        @Override
+        int match(int slot, char[] word, int len, int hash) {
+            long at = slot * SLOT_BYTES;
+            long offset = slots.get(ValueLayout.JAVA_LONG, at);
+            if (offset == EMPTY_OFFSET)
+                return -1;
+            if (offset >= 0 && slots.get(ValueLayout.JAVA_INT, at + HASH) == hash && sameWord(keys, offset, word, len))
+                return 1;
+            return 0;
+        }
+
+        @Override
+        int state(int slot) {
+            long offset = offset(slot);
+            return offset >= 0 ? LIVE : offset == TOMBSTONE ? REMOVED : EMPTY;
+        }
+
+        @Override
+        int hash(int slot) {
+            return slots.get(ValueLayout.JAVA_INT, slot * SLOT_BYTES + HASH);
+        }
+
+        @Override
+        int count(int slot) {
+            return slots.get(ValueLayout.JAVA_INT, slot * SLOT_BYTES + COUNT);
+        }
+
+        @Override
+        int addCount(int slot, int delta) {
+            long at = slot * SLOT_BYTES + COUNT;
+            int count = slots.get(ValueLayout.JAVA_INT, at) + delta;
+            slots.set(ValueLayout.JAVA_INT, at, count);
+            return count;
+        }
+
+        @Override
+        String word(int slot) {
+            long offset = offset(slot);
+            int len = keys.get(ValueLayout.JAVA_INT_UNALIGNED, offset);
+            if (scratch.length < len)
+                scratch = new byte[Math.max(len, scratch.length * 2)];
+            MemorySegment.copy(keys, ValueLayout.JAVA_BYTE, offset + 4, scratch, 0, len);
+            return new String(scratch, 0, len, StandardCharsets.ISO_8859_1);
+            // ASCII bytes: Latin-1 is a plain copy into the String
+        }
+
+        @Override
+        void put(int slot, char[] word, int len, int hash, int count) {
+            long need = 4L + len;
+            if (keys.byteSize() - keysSize < need)
+                growKeys(need);
+            long offset = keysSize;
+            keys.set(ValueLayout.JAVA_INT_UNALIGNED, offset, len);
+            for (int i = 0; i < len; i++)
+                keys.set(ValueLayout.JAVA_BYTE, offset + 4 + i, (byte) word[i]);
+            keysSize = offset + need;
+            set(slot, offset, hash, count);
+        }
+
+        // copy the word of the old key segment to the end of this one
+        @Override
+        void moveFrom(Slots from, int fromSlot, int slot) {
+            NativeSlots old = (NativeSlots) from;
+            long offset = old.offset(fromSlot);
+            long need = 4L + old.keys.get(ValueLayout.JAVA_INT_UNALIGNED, offset);
+            if (keys.byteSize() - keysSize < need)
+                growKeys(need);
+            long at = keysSize;
+            MemorySegment.copy(old.keys, offset, keys, at, need);
+            keysSize = at + need;
+            set(slot, at, old.hash(fromSlot), old.count(fromSlot));
+        }
+
+        private void set(int slot, long offset, int hash, int count) {
+            long at = slot * SLOT_BYTES;
+            slots.set(ValueLayout.JAVA_LONG, at, offset);
+            slots.set(ValueLayout.JAVA_INT, at + HASH, hash);
+            slots.set(ValueLayout.JAVA_INT, at + COUNT, count);
+        }
+
+        @Override
+        long clear(int slot) {
+            long at = slot * SLOT_BYTES;
+            long bytes = 4L + keys.get(ValueLayout.JAVA_INT_UNALIGNED, slots.get(ValueLayout.JAVA_LONG, at));
+            slots.set(ValueLayout.JAVA_LONG, at, TOMBSTONE);
+            slots.set(ValueLayout.JAVA_INT, at + COUNT, 0);
+            return bytes;
+        }
+
+        @Override
+        Slots newGeneration(int capacity, long liveKeyBytes) {
+            return new NativeSlots(capacity, liveKeyBytes + liveKeyBytes / 2);
+        }
+
+        @Override
+        Slots copy() {
+            return new NativeSlots(this);
+        }
+
+        @Override
+        long keyBytes() {
+            return keys.byteSize();
+        }
+
+        @Override
+        long usedKeyBytes() {
+            return keysSize;
+        }
+
+        // free all native memory (a second call does nothing)
+        @Override
+        void free() {
+            if (slotArena == null)
+                return;
+            slotArena.close();
+            keyArena.close();
+            slotArena = null;
+            keyArena = null;
+        }
+
+        // move the keys to a segment twice as big, the old one is freed right away
+        private void growKeys(long need) {
+            Arena arena = Arena.ofShared();
+            MemorySegment bigger = arena.allocate(Math.max(keysSize + need, 2 * keys.byteSize()), 8);
+            MemorySegment.copy(keys, 0, bigger, 0, keysSize);
+            keyArena.close();
+            keyArena = arena;
+            keys = bigger;
+        }
+    }
+
+    // true if the word at offset has exactly the chars key[0..len)
+    private static boolean sameWord(MemorySegment keys, long offset, char[] key, int len) {
+        if (keys.get(ValueLayout.JAVA_INT_UNALIGNED, offset) != len)
+            return false;
+        long pos = offset + 4;
+        for (int i = 0; i < len; i++) {
+            if (keys.get(ValueLayout.JAVA_BYTE, pos + i) != (byte) key[i])
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,400 @@
+package org.example;
+
+/**
+ * Open addressing with alternating quadratic probing: h, h+1, h-1, h+4, h-4, h+9, ...
+ * Because the capacity is always a 4k+3 prime, this sequence reaches every slot.
+ * Removed slots become tombstones, they are dropped when the table is rebuilt.
+ * Like ChainedWordTable, a rebuild is incremental: the old slots are moved a few at a time.
+ * This class does the probing, counting and rebuilding for every open addressing backend;
+ * how a generation of slots stores its words is up to a Slots subclass
+ * (ProbingWordTable: Strings, ArenaWordTable: a byte arena, OffHeapWordTable: native memory).
+ */
+class OpenAddressingTable implements WordTable {
+
+    // slots moved from the old generation on every operation,
+    // must be > 2 so a rebuild is finished before the next one is needed
+    private static final int MIGRATE_STEP = 8;
+    private static final int MAX_CAPACITY = 1 << 30;
+    // probing gets slow when the table is more than half full, a higher maxLoadFactor is lowered to this
+    static final double MAX_LOAD_FACTOR = 0.5;
+
+    private final double maxLoadFactor;
+    private Slots slots;
+    private Slots old;
+    // previous generation while a rebuild is in progress (null otherwise)
+    private int migrateIndex = 0;
+
+    OpenAddressingTable(Slots slots, double maxLoadFactor) {
+        this.maxLoadFactor = Math.min(maxLoadFactor, MAX_LOAD_FACTOR);
+        this.slots = slots;
+    }
+
+    // the slots are copied into new memory (see Slots.copy for what that costs per backend)
+    @Override
+    public WordTable snapshot() {
+        if (old != null)
+            finishMigration();
+        return new OpenAddressingTable(slots.copy(), maxLoadFactor);
+    }
+
+    @Override
+    public int add(char[] key, int len, int hash, int delta) {
+        migrateSome();
+        int slot = findSlot(slots, key, len, hash);
+        if (slot >= 0)
+            return slots.addCount(slot, delta);
+        if (old != null) {
+            int oldSlot = findSlot(old, key, len, hash);
+            if (oldSlot >= 0)
+                // still in a part of the old generation that has not been moved yet
+                return old.addCount(oldSlot, delta);
+        }
+        slots.put(freeSlot(hash), key, len, hash, delta);
+        growIfNeeded();
+        return delta;
+    }
+
+    @Override
+    public int get(char[] key, int len, int hash) {
+        migrateSome();
+        int slot = findSlot(slots, key, len, hash);
+        if (slot >= 0)
+            return slots.count(slot);
+        if (old != null) {
+            slot = findSlot(old, key, len, hash);
+            if (slot >= 0)
+                return old.count(slot);
+        }
+        return 0;
+    }
+
+    @Override
+    public int remove(char[] key, int len, int hash) {
+        migrateSome();
+        int slot = findSlot(slots, key, len, hash);
+        if (slot >= 0)
+            return slots.remove(slot);
+        if (old != null) {
+            slot = findSlot(old, key, len, hash);
+            if (slot >= 0)
+                return old.remove(slot);
+        }
+        return 0;
+    }
+
+    @Override
+    public void forEach(EntryVisitor visitor) {
+        visit(slots, 0, slots.capacity, visitor);
+        if (old != null)
+            visit(old, migrateIndex, old.capacity, visitor);
+    }
+
+    @Override
+    public void forEachInBuckets(int from, int to, EntryVisitor visitor) {
+        visit(slots, from, to, visitor);
+    }
+
+    private static void visit(Slots slots, int from, int to, EntryVisitor visitor) {
+        for (int i = from; i < to; i++) {
+            if (slots.state(i) == Slots.LIVE)
+                visitor.visit(slots.word(i), slots.hash(i), slots.count(i));
+        }
+    }
+
+    @Override
+    public double maxLoadFactor() {
+        return maxLoadFactor;
+    }
+
+    @Override
+    public int capacity() {
+        return slots.capacity;
+    }
+
+    @Override
+    public int size() {
+        return old == null ? slots.size : slots.size + old.size;
+    }
+
+    @Override
+    public boolean isResizing() {
+        return old != null;
+    }
+
+    @Override
+    public long keyBytes() {
+        return old == null ? slots.keyBytes() : slots.keyBytes() + old.keyBytes();
+    }
+
+    @Override
+    public void close() {
+        dropOld();
+        slots.free();
+    }
+
+    // ---- probing ----
+
+    // slot holding word, -1 if not present
+    private static int findSlot(Slots slots, char[] word, int len, int hash) {
+        int cap = slots.capacity;
+        int home = WordTable.indexForHash(hash, cap);
+        int square = 0;
+        // i*i % cap, updated with (i+1)^2 = i^2 + 2i + 1
+        for (int i = 0; i <= cap / 2; i++) {
+            if (i > 0)
+                square = (square + 2 * i - 1) % cap;
+            int slot = (home + square) % cap;
+            // h + i^2
+            int found = slots.match(slot, word, len, hash);
+            if (found != 0)
+                return found > 0 ? slot : -1;
+            if (i == 0)
+                continue;
+            slot = home - square;
+            // h - i^2
+            if (slot < 0) slot += cap;
+            found = slots.match(slot, word, len, hash);
+            if (found != 0)
+                return found > 0 ? slot : -1;
+        }
+        return -1;
+    }
+
+    // first tombstone or empty slot of the current generation on the probe sequence
+    // of a word that is known to be missing; the slot is counted as taken
+    private int freeSlot(int hash) {
+        int cap = slots.capacity;
+        int home = WordTable.indexForHash(hash, cap);
+        int square = 0;
+        for (int i = 0; i <= cap / 2; i++) {
+            if (i > 0)
+                square = (square + 2 * i - 1) % cap;
+            int slot = (home + square) % cap;
+            if (take(slot))
+                return slot;
+            if (i == 0)
+                continue;
+            slot = home - square;
+            if (slot < 0) slot += cap;
+            if (take(slot))
+                return slot;
+        }
+        // cannot happen while the table is at most half full
+        throw new IllegalStateException("hash table is full");
+    }
+
+    private boolean take(int slot) {
+        int state = slots.state(slot);
+        if (state == Slots.LIVE)
+            return false;
+        if (state == Slots.EMPTY)
+            slots.used++;
+        slots.size++;
+        return true;
+    }
+
+    @Override
+    public int probes(char[] key, int len, int hash) {
+        int n = probes(slots, key, len, hash);
+        if (n > 0 || old == null)
+            return n;
+        int inOld = probes(old, key, len, hash);
+        return inOld > 0 ? -n + inOld : n + inOld;
+    }
+
+    // slots looked at by findSlot (negative if the word is not there)
+    private static int probes(Slots slots, char[] word, int len, int hash) {
+        int cap = slots.capacity;
+        int home = WordTable.indexForHash(hash, cap);
+        int square = 0;
+        int n = 0;
+        for (int i = 0; i <= cap / 2; i++) {
+            if (i > 0)
+                square = (square + 2 * i - 1) % cap;
+            for (int sign = 0; sign < (i == 0 ? 1 : 2); sign++) {
+                int slot = sign == 0 ? (home + square) % cap : home - square;
+                if (slot < 0) slot += cap;
+                n++;
+                int found = slots.match(slot, word, len, hash);
+                if (found != 0)
+                    return found > 0 ? n : -n;
+            }
+        }
+        return -n;
+    }
+
+    @Override
+    public void measureBuckets(BucketVisitor visitor) {
+        measureBuckets(slots, 0, visitor);
+        if (old != null)
+            measureBuckets(old, migrateIndex, visitor);
+    }
+
+    private static void measureBuckets(Slots slots, int from, BucketVisitor visitor) {
+        int cap = slots.capacity;
+        for (int slot = from; slot < cap; slot++) {
+            if (slots.state(slot) != Slots.LIVE) {
+                visitor.bucket(0);
+                continue;
+            }
+            // walk the probe sequence of the key until it reaches this slot
+            int home = WordTable.indexForHash(slots.hash(slot), cap);
+            int square = 0;
+            int n = 0;
+            for (int i = 0; i <= cap / 2; i++) {
+                if (i > 0)
+                    square = (square + 2 * i - 1) % cap;
+                n++;
+                if ((home + square) % cap == slot)
+                    break;
+                if (i == 0)
+                    continue;
+                n++;
+                int minus = home - square;
+                if (minus < 0) minus += cap;
+                if (minus == slot)
+                    break;
+            }
+            visitor.bucket(n);
+        }
+    }
+
+    // ---- rebuild ----
+
+    // rebuild once live entries + tombstones go above maxLoadFactor, or once the key bytes of removed
+    // words are more than the live ones (and than the slot count, so a small table is not rebuilt all the time)
+    // grow to the next 4k+3 prime of the ladder after doubling, unless most of the load is tombstones
+    private void growIfNeeded() {
+        int capacity = slots.capacity;
+        if (slots.used <= maxLoadFactor * capacity && slots.garbage <= Math.max(slots.liveKeyBytes(), capacity))
+            return;
+        if (old != null)
+            finishMigration();
+        // a rebuild is still running --> finish it first
+
+        int newCapacity = capacity;
+        if (slots.size > maxLoadFactor * capacity / 2 && capacity < MAX_CAPACITY)
+            newCapacity = PrimeUtils.ladder4kPlus3Prime((int) Math.min(MAX_CAPACITY, 2L * capacity + 1));
+        old = slots;
+        migrateIndex = 0;
+        slots = old.newGeneration(newCapacity, old.liveKeyBytes());
+        // removed words are not copied
+    }
+
+    // move a few slots from the old generation into the current one
+    private void migrateSome() {
+        if (old == null)
+            return;
+        int end = Math.min(old.capacity, migrateIndex + MIGRATE_STEP);
+        for (; migrateIndex < end; migrateIndex++)
+            migrateSlot(migrateIndex);
+        if (migrateIndex == old.capacity)
+            dropOld();
+    }
+
+    private void finishMigration() {
+        for (; migrateIndex < old.capacity; migrateIndex++)
+            migrateSlot(migrateIndex);
+        dropOld();
+    }
+
+    private void migrateSlot(int slot) {
+        if (old.state(slot) != Slots.LIVE)
+            return;
+        slots.moveFrom(old, slot, freeSlot(old.hash(slot)));
+        old.remove(slot);
+        // a tombstone, not empty: other keys of the old generation may probe through this slot
+    }
+
+    private void dropOld() {
+        if (old == null)
+            return;
+        old.free();
+        old = null;
+    }
+
+    /**
+     * One generation of slots: where the words, their hashes and counts are stored.
+     * The table keeps the counters up to date, a subclass only reads and writes single slots.
+     */
+    abstract static class Slots {
+
+        static final int EMPTY = 0;
+        static final int REMOVED = 1;
+        static final int LIVE = 2;
+
+        final int capacity;
+        int size = 0;
+        // live entries
+        int used = 0;
+        // live entries + tombstones
+        long garbage = 0;
+        // key bytes of removed words that are still held (always 0 for String keys)
+
+        Slots(int capacity) {
+            this.capacity = capacity;
+        }
+
+        // same counters, for copy()
+        Slots(Slots from) {
+            this.capacity = from.capacity;
+            this.size = from.size;
+            this.used = from.used;
+            this.garbage = from.garbage;
+        }
+
+        // 1 = the slot holds the word, -1 = empty slot (the word is not in the table), 0 = go on
+        abstract int match(int slot, char[] word, int len, int hash);
+
+        // EMPTY, REMOVED or LIVE
+        abstract int state(int slot);
+
+        abstract int hash(int slot);
+
+        abstract int count(int slot);
+
+        abstract int addCount(int slot, int delta);
+
+        abstract String word(int slot);
+
+        // store a new word in a free slot
+        abstract void put(int slot, char[] word, int len, int hash, int count);
+
+        // store the word of from[fromSlot] (slots of the same kind) in a free slot
+        abstract void moveFrom(Slots from, int fromSlot, int slot);
+
+        // turn a live slot into a tombstone, return the key bytes it leaves behind as garbage
+        abstract long clear(int slot);
+
+        // empty slots of the same kind for a rebuild, with room for about liveKeyBytes of words
+        abstract Slots newGeneration(int capacity, long liveKeyBytes);
+
+        // the same contents in new memory
+        abstract Slots copy();
+
+        // bytes reserved for the words themselves (0 when they are Strings)
+        long keyBytes() {
+            return 0;
+        }
+
+        // part of keyBytes written so far: live words and garbage
+        long usedKeyBytes() {
+            return 0;
+        }
+
+        // free memory held outside the heap
+        void free() {
+        }
+
+        final long liveKeyBytes() {
+            return usedKeyBytes() - garbage;
+        }
+
+        final int remove(int slot) {
+            int count = count(slot);
+            garbage += clear(slot);
+            size--;
+            return count;
+        }
+    }
+}
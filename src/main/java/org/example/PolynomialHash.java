@@ -0,0 +1,22 @@
+package org.example;
+
+/**
+ * h = 31 * h + c over the chars, the same value as String.hashCode of the word.
+ */
+final class PolynomialHash implements HashStrategy {
+
+    static final PolynomialHash INSTANCE = new PolynomialHash();
+
+    private PolynomialHash() {
+    }
+
+    @Override
+    public int hash(char[] key, int len) {
+        return WordNormalizer.hashOf(key, len);
+    }
+
+    @Override
+    public String toString() {
+        return "polynomial";
+    }
+}
@@ -1,30 +1,120 @@
 package org.example;
 
+import java.util.Arrays;
+
 /**
  * Check isPrime
  * Find prime number 4k+3 (next4kPlus3Prime)
+ * isPrime is a deterministic Miller-Rabin test (no trial division up to sqrt(n)), for any long.
+ * Resizes take their size from a ladder of 4k+3 primes computed once: four rungs per doubling,
+ * so growing to the smallest rung >= 2 * capacity + 1 gives 2 to 2.4 times the capacity
+ * without searching for a prime.
  */
 public class PrimeUtils {
 
+    private static final int[] SMALL_PRIMES = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37};
+    // bases that make Miller-Rabin exact for every n < 4,759,123,141
+    private static final long[] INT_BASES = {2, 7, 61};
+    // bases that make it exact for every n < 3.3 * 10^24 (so for every long)
+    private static final long[] LONG_BASES = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37};
+    // products of two numbers below this fit in a long
+    private static final long MUL_DIRECT = 3_037_000_499L;
+    // below this trial division is faster (at most ~40 loop steps)
+    private static final long TRIAL_DIVISION_LIMIT = 1 << 16;
+
+    private static final int[] LADDER = buildLadder();
+
     // check a which is a number whether it is a prime number
     //  means: is a natural number greater than 1 that has exactly two positive divisors: 1 and itself.
     public static boolean isPrime(int a) {
-        if (a <= 1)
+        return isPrime((long) a);
+    }
+
+    // Miller-Rabin with a fixed set of bases, which has no false positive in the long range
+    public static boolean isPrime(long n) {
+        if (n < 2)
             return false;
-        if (a <= 3)
+        for (int p : SMALL_PRIMES) {
+            if (n % p == 0)
+                return n == p;
+        }
+        if (n < 41 * 41)
+            return true;
+        // no factor up to 37 --> prime
+        if (n < TRIAL_DIVISION_LIMIT) {
+            // small n: a few divisions are cheaper than the modular powers
+            for (long i = 41; i * i <= n; i += 6) {
+                if (n % i == 0 || n % (i + 2) == 0)
+                    return false;
+            }
             return true;
-        if (a % 2 == 0 || a % 3 == 0) // if divide either of them --> a is not prime number
-            return false;
-        for (int i = 5; i * 1L * i <= a; i += 6) {
-            if (a % i == 0 || a % (i + 2) == 0) return false;
+        }
+        long d = n - 1;
+        int s = Long.numberOfTrailingZeros(d);
+        d >>= s;
+        // n - 1 = d * 2^s with d odd
+        for (long base : n < 4_759_123_141L ? INT_BASES : LONG_BASES) {
+            if (!strongProbablePrime(n, base, d, s))
+                return false;
         }
         return true;
     }
+
+    // n passes the test for base: base^d == 1, or base^(d * 2^r) == n - 1 for some r < s
+    private static boolean strongProbablePrime(long n, long base, long d, int s) {
+        long x = powMod(base % n, d, n);
+        if (x == 1 || x == n - 1)
+            return true;
+        for (int r = 1; r < s; r++) {
+            x = mulMod(x, x, n);
+            if (x == n - 1)
+                return true;
+            if (x == 1)
+                return false;
+        }
+        return false;
+    }
+
+    private static long powMod(long base, long exponent, long m) {
+        long result = 1;
+        while (exponent > 0) {
+            if ((exponent & 1) != 0)
+                result = mulMod(result, base, m);
+            base = mulMod(base, base, m);
+            exponent >>= 1;
+        }
+        return result;
+    }
+
+    // a * b mod m for 0 <= a, b < m
+    private static long mulMod(long a, long b, long m) {
+        if (a < MUL_DIRECT && b < MUL_DIRECT)
+            return a * b % m;
+        // too big for one multiply --> add a shifted copy of a per bit of b (never above 2m)
+        long result = 0;
+        while (b > 0) {
+            if ((b & 1) != 0)
+                result = addMod(result, a, m);
+            a = addMod(a, a, m);
+            b >>= 1;
+        }
+        return result;
+    }
+
+    private static long addMod(long a, long b, long m) {
+        return a >= m - b ? a - (m - b) : a + b;
+    }
+
         // find prime number >= n of the form 4k+3
     public static int next4kPlus3Prime(int n) {
+        return (int) next4kPlus3Prime((long) n);
+        // Integer.MAX_VALUE is a 4k+3 prime, so the result always fits in an int
+    }
+
+    public static long next4kPlus3Prime(long n) {
         if (n <= 3)
             return 3; // return the 1st 4k+3 prime number
-        int candidate = n;
+        long candidate = n;
         if (candidate % 4 != 3) {
             candidate += (3 - candidate % 4 + 4) % 4;
 
@@ -36,8 +126,40 @@ public class PrimeUtils {
 
         }
         while (!isPrime(candidate)) {
+            if (candidate > Long.MAX_VALUE - 4)
+                throw new ArithmeticException("no 4k+3 prime >= " + n + " fits in a long");
             candidate += 4;
         }
         return candidate;
     }
+
+    // smallest 4k+3 prime of the ladder that is >= n (n at most Integer.MAX_VALUE, the last rung)
+    public static int ladder4kPlus3Prime(int n) {
+        int lo = 0;
+        int hi = LADDER.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (LADDER[mid] < n)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return LADDER[lo];
+    }
+
+    // 3, then the next 4k+3 prime after each rung * 2^(1/4), up to Integer.MAX_VALUE
+    private static int[] buildLadder() {
+        int[] ladder = new int[160];
+        int n = 0;
+        long p = 3;
+        while (true) {
+            ladder[n++] = (int) p;
+            if (p == Integer.MAX_VALUE)
+                break;
+            long next = next4kPlus3Prime(Math.max(p + 1, (long) Math.ceil(p * 1.189207115002721)));
+            p = Math.min(next, Integer.MAX_VALUE);
+            // 2^31 - 1 is itself a 4k+3 prime, so it closes the ladder
+        }
+        return Arrays.copyOf(ladder, n);
+    }
 }
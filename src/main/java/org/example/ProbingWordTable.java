@@ -0,0 +1,106 @@
+package org.example;
+
+/**
+ * Open addressing (see OpenAddressingTable) with the keys, hashes and counts
+ * kept in parallel arrays (no node per entry).
+ */
+final class ProbingWordTable extends OpenAddressingTable {
+
+    ProbingWordTable(int capacity, double maxLoadFactor) {
+        super(new StringSlots(capacity), maxLoadFactor);
+    }
+
+    private static final class StringSlots extends Slots {
+
+        // marks a removed slot (compared by reference)
+        private static final String TOMBSTONE = new String("");
+
+        private final String[] keys;
+        private final int[] hashes;
+        private final int[] counts;
+
+        StringSlots(int capacity) {
+            super(capacity);
+            keys = new String[capacity];
+            hashes = new int[capacity];
+            counts = new int[capacity];
+        }
+
+        // the flat arrays are copied (the word Strings are shared): about 12 bytes per slot
+        private StringSlots(StringSlots from) {
+            super(from);
+            keys = from.keys.clone();
+            hashes = from.hashes.clone();
+            counts = from.counts.clone();
+        }
+
+        @Override
+        int match(int slot, char[] word, int len, int hash) {
+            String key = keys[slot];
+            if (key == null)
+                return -1;
+            if (key != TOMBSTONE && hashes[slot] == hash && WordTable.sameWord(key, word, len))
+                return 1;
+            return 0;
+        }
+
+        @Override
+        int state(int slot) {
+            String key = keys[slot];
+            return key == null ? EMPTY : key == TOMBSTONE ? REMOVED : LIVE;
+        }
+
+        @Override
+        int hash(int slot) {
+            return hashes[slot];
+        }
+
+        @Override
+        int count(int slot) {
+            return counts[slot];
+        }
+
+        @Override
+        int addCount(int slot, int delta) {
+            return counts[slot] += delta;
+        }
+
+        @Override
+        String word(int slot) {
+            return keys[slot];
+        }
+
+        @Override
+        void put(int slot, char[] word, int len, int hash, int count) {
+            keys[slot] = new String(word, 0, len);
+            // only a new word allocates
+            hashes[slot] = hash;
+            counts[slot] = count;
+        }
+
+        @Override
+        void moveFrom(Slots from, int fromSlot, int slot) {
+            StringSlots old = (StringSlots) from;
+            keys[slot] = old.keys[fromSlot];
+            hashes[slot] = old.hashes[fromSlot];
+            counts[slot] = old.counts[fromSlot];
+        }
+
+        @Override
+        long clear(int slot) {
+            keys[slot] = TOMBSTONE;
+            counts[slot] = 0;
+            return 0;
+        }
+
+        @Override
+        Slots newGeneration(int capacity, long liveKeyBytes) {
+            return new StringSlots(capacity);
+        }
+
+        @Override
+        Slots copy() {
+            return new StringSlots(this);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.example;
+
+/**
+ * Seeded hash in the style of wyhash: 4 chars are packed into a long, and every 8 chars are
+ * folded into the state with one 64x64 -> 128 bit multiply (the high and low halves xor-ed).
+ * The seed goes into the first multiply, so which words collide depends on the seed.
+ * Normalized chars are below 0x80, so a packed block xor P1 is never 0 (a 0 factor would
+ * throw away the state).
+ */
+final class SeededHash implements HashStrategy {
+
+    private static final long P0 = 0xa0761d6478bd642fL;
+    private static final long P1 = 0xe7037ed1a0b428dbL;
+    private static final long P2 = 0x8ebc6af09c88c6e3L;
+
+    private final long seed;
+    private final long secret;
+    // the seed mixed once, so similar seeds give unrelated hashes
+
+    SeededHash(long seed) {
+        this.seed = seed;
+        this.secret = mum(seed ^ P0, P1);
+    }
+
+    long seed() {
+        return seed;
+    }
+
+    @Override
+    public int hash(char[] key, int len) {
+        long h = secret ^ len;
+        int i = 0;
+        for (; i + 8 <= len; i += 8)
+            h = mum(pack(key, i, 4) ^ P1, pack(key, i + 4, 4) ^ h);
+        // the last 0..7 chars
+        int rest = len - i;
+        long a = pack(key, i, Math.min(rest, 4));
+        long b = rest > 4 ? pack(key, i + 4, rest - 4) : 0;
+        h = mum(a ^ P1, b ^ h);
+        h = mum(h ^ P2, secret ^ P0);
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // n <= 4 chars from key[from] as 16-bit lanes of a long
+    private static long pack(char[] key, int from, int n) {
+        long v = 0;
+        for (int j = 0; j < n; j++)
+            v |= (long) key[from + j] << (16 * j);
+        return v;
+    }
+
+    // fold the 128-bit product of a and b into 64 bits
+    private static long mum(long a, long b) {
+        return a * b ^ Math.unsignedMultiplyHigh(a, b);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SeededHash other && other.seed == seed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(seed);
+    }
+
+    @Override
+    public String toString() {
+        return "seeded";
+        // the seed is a secret, it is not printed
+    }
+}
@@ -0,0 +1,250 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Sorted view of the words of a DictionaryBuilder, so listing does not sort every time.
+ * The sorted array is built on the first listing. After that, new and removed words are
+ * kept in two small sorted arrays of pending changes, and queries read the base array and the
+ * pending words together (a merge walk) without rebuilding anything: a range, page or prefix
+ * query costs O(log n) to find its start plus the words it returns.
+ * The pending changes are merged into the base array once there are more than about 4 * sqrt(n)
+ * of them, so an add or remove costs O(sqrt n) amortized (array shifts and merges, no allocation
+ * per word). If too many changes pile up between two listings (e.g. a bulk load), the index is
+ * dropped and rebuilt on the next listing.
+ */
+final class SortedWordIndex {
+
+    private String[] words = new String[0];
+    private int size = 0;
+    private boolean valid = false;
+    // false --> words is not built (or was dropped), nothing is tracked
+
+    private String[] added = new String[16];
+    private int addedSize = 0;
+    // words not in the base array, sorted
+    private String[] removed = new String[16];
+    private int removedSize = 0;
+    // words of the base array that are gone, sorted
+    private int changesSinceListing = 0;
+
+    // pending changes are worth tracking only while the index is built
+    boolean isActive() {
+        return valid;
+    }
+
+    // a new word was stored in the table
+    void wordAdded(String word) {
+        if (!valid)
+            return;
+        int at = lowerBound(removed, removedSize, word);
+        // removed then added again --> it is still in the base array
+        if (at < removedSize && removed[at].equals(word)) {
+            removedSize = delete(removed, removedSize, at);
+        } else {
+            added = insert(added, addedSize, lowerBound(added, addedSize, word), word);
+            addedSize++;
+        }
+        changed();
+    }
+
+    // a word was removed from the table
+    void wordRemoved(String word) {
+        if (!valid)
+            return;
+        int at = lowerBound(added, addedSize, word);
+        if (at < addedSize && added[at].equals(word)) {
+            addedSize = delete(added, addedSize, at);
+        } else {
+            removed = insert(removed, removedSize, lowerBound(removed, removedSize, word), word);
+            removedSize++;
+        }
+        changed();
+    }
+
+    // forget everything, the next listing rebuilds from the table
+    void invalidate() {
+        valid = false;
+        words = new String[0];
+        size = 0;
+        clearPending();
+    }
+
+    private void clearPending() {
+        Arrays.fill(added, 0, addedSize, null);
+        Arrays.fill(removed, 0, removedSize, null);
+        addedSize = 0;
+        removedSize = 0;
+    }
+
+    private void changed() {
+        if (++changesSinceListing > Math.max(1024, size))
+            invalidate();
+        else if (addedSize + removedSize > Math.max(256, 4 * (int) Math.sqrt(size)))
+            fold();
+    }
+
+    // merge the pending changes into the base array: O(n + k)
+    private void fold() {
+        String[] merged = new String[size - removedSize + addedSize];
+        int i = 0, j = 0, r = 0, k = 0;
+        while (i < size || j < addedSize) {
+            if (j == addedSize || (i < size && words[i].compareTo(added[j]) < 0)) {
+                String w = words[i++];
+                if (r < removedSize && removed[r].equals(w))
+                    r++;
+                else
+                    merged[k++] = w;
+            } else {
+                merged[k++] = added[j++];
+            }
+        }
+        words = merged;
+        size = k;
+        clearPending();
+    }
+
+    // build the base array if it is not there; pending changes are left where they are
+    private void refresh(WordTable table) {
+        changesSinceListing = 0;
+        if (valid)
+            return;
+        String[] all = new String[table.size()];
+        int[] n = {0};
+        table.forEach((w, hash, count) -> all[n[0]++] = w);
+        Arrays.sort(all, 0, n[0]);
+        words = all;
+        size = n[0];
+        clearPending();
+        valid = true;
+    }
+
+    private int liveSize() {
+        return size - removedSize + addedSize;
+    }
+
+    // all words in order
+    ArrayList<String> all(WordTable table) {
+        refresh(table);
+        ArrayList<String> list = new ArrayList<>(liveSize());
+        walk(null, 0, list::add);
+        return list;
+    }
+
+    // hand every word to action in order, straight from the sorted arrays (no list is built)
+    void forEach(WordTable table, Consumer<String> action) {
+        refresh(table);
+        walk(null, 0, w -> {
+            action.accept(w);
+            return true;
+        });
+    }
+
+    // words w with from <= w < to, in order (null = no bound)
+    ArrayList<String> between(WordTable table, String from, String to) {
+        refresh(table);
+        ArrayList<String> list = new ArrayList<>();
+        walk(from, 0, w -> (to == null || w.compareTo(to) < 0) && list.add(w));
+        return list;
+    }
+
+    // at most limit words, skipping the first offset ones
+    ArrayList<String> page(WordTable table, int offset, int limit) {
+        if (offset < 0 || limit < 0)
+            throw new IllegalArgumentException("offset and limit cannot be negative");
+        refresh(table);
+        int total = liveSize();
+        ArrayList<String> list = new ArrayList<>((int) Math.max(0, Math.min(limit, (long) total - offset)));
+        if (offset >= total || limit == 0)
+            return list;
+        // first base position with at least offset words before it: the word at offset comes
+        // after the previous base word, with only pending words in between
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (wordsBefore(mid) < offset)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        String from = lo == 0 ? null : words[lo - 1];
+        int skip = offset - (lo == 0 ? 0 : wordsBefore(lo - 1));
+        walk(from, skip, w -> list.add(w) && list.size() < limit);
+        return list;
+    }
+
+    // words starting with prefix, in order, at most limit of them
+    ArrayList<String> withPrefix(WordTable table, String prefix, int limit) {
+        if (limit < 0)
+            throw new IllegalArgumentException("limit cannot be negative");
+        refresh(table);
+        ArrayList<String> list = new ArrayList<>();
+        if (limit == 0)
+            return list;
+        // all matches are next to each other, right after the lower bound of the prefix
+        walk(prefix, 0, w -> w.startsWith(prefix) && list.add(w) && list.size() < limit);
+        return list;
+    }
+
+    // words (base and pending) that sort before base word i
+    private int wordsBefore(int i) {
+        String w = words[i];
+        return i - lowerBound(removed, removedSize, w) + lowerBound(added, addedSize, w);
+    }
+
+    // visit the words >= from in order (null = all), skipping the first skip of them,
+    // until visitor returns false
+    private void walk(String from, int skip, Predicate<String> visitor) {
+        int i = from == null ? 0 : lowerBound(words, size, from);
+        int j = from == null ? 0 : lowerBound(added, addedSize, from);
+        int r = from == null ? 0 : lowerBound(removed, removedSize, from);
+        while (i < size || j < addedSize) {
+            String w;
+            if (j == addedSize || (i < size && words[i].compareTo(added[j]) < 0)) {
+                w = words[i++];
+                if (r < removedSize && removed[r].equals(w)) {
+                    r++;
+                    continue;
+                }
+            } else {
+                w = added[j++];
+            }
+            if (skip > 0)
+                skip--;
+            else if (!visitor.test(w))
+                return;
+        }
+    }
+
+    // put word at position at of sorted[0..n), growing the array if needed
+    private static String[] insert(String[] sorted, int n, int at, String word) {
+        if (n == sorted.length)
+            sorted = Arrays.copyOf(sorted, 2 * n);
+        System.arraycopy(sorted, at, sorted, at + 1, n - at);
+        sorted[at] = word;
+        return sorted;
+    }
+
+    // drop position at of sorted[0..n), return the new length
+    private static int delete(String[] sorted, int n, int at) {
+        System.arraycopy(sorted, at + 1, sorted, at, n - at - 1);
+        sorted[n - 1] = null;
+        return n - 1;
+    }
+
+    // first position of sorted[0..n) whose word is >= key
+    private static int lowerBound(String[] sorted, int n, String key) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid].compareTo(key) < 0)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,95 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Shape of the hash table of a DictionaryBuilder at one moment:
+ * how the entries are spread over the buckets and how many entries a lookup compares with.
+ * With open addressing a "bucket" is a slot and its length is the number of probes
+ * needed to reach the word stored there (0 for a free slot).
+ * The probe averages come from a sample of the lookups (see DictionaryBuilder.tableStats).
+ */
+public class TableStats {
+
+    // chains of this length or longer share the last histogram entry
+    public static final int HISTOGRAM_SIZE = 16;
+
+    private final int capacity;
+    private final int size;
+    private final long[] histogram;
+    private final int maxChain;
+    private final long hitSamples;
+    private final long hitProbes;
+    private final long missSamples;
+    private final long missProbes;
+    private final long keyBytes;
+
+    TableStats(int capacity, int size, long[] histogram, int maxChain,
+               long hitSamples, long hitProbes, long missSamples, long missProbes, long keyBytes) {
+        this.capacity = capacity;
+        this.size = size;
+        this.histogram = histogram;
+        this.maxChain = maxChain;
+        this.hitSamples = hitSamples;
+        this.hitProbes = hitProbes;
+        this.missSamples = missSamples;
+        this.missProbes = missProbes;
+        this.keyBytes = keyBytes;
+    }
+
+    public int getCapacity() { return capacity; }
+    public int getSize() { return size; }
+    public int getMaxChainLength() { return maxChain; }
+    public long getHitSamples() { return hitSamples; }
+    public long getMissSamples() { return missSamples; }
+
+    // bytes reserved for the words by the COMPACT and OFF_HEAP backends (0 for the others)
+    public long getKeyBytes() { return keyBytes; }
+
+    // histogram[i] = buckets of length i (the last entry: length HISTOGRAM_SIZE - 1 or more)
+    public long[] getChainLengthHistogram() {
+        return histogram.clone();
+    }
+
+    // buckets counted by the histogram (during a resize this includes the old buckets not moved yet)
+    public long getBuckets() {
+        return Arrays.stream(histogram).sum();
+    }
+
+    public double getEmptyBucketRatio() {
+        long buckets = getBuckets();
+        return buckets == 0 ? 0.0 : histogram[0] * 1.0 / buckets;
+    }
+
+    // average length of the non-empty buckets
+    public double getAverageChainLength() {
+        long nonEmpty = getBuckets() - histogram[0];
+        return nonEmpty == 0 ? 0.0 : size * 1.0 / nonEmpty;
+    }
+
+    // entries compared by a lookup that found its word (0 if no lookup was sampled)
+    public double getAverageProbesPerHit() {
+        return hitSamples == 0 ? 0.0 : hitProbes * 1.0 / hitSamples;
+    }
+
+    // entries compared by a lookup of a missing word
+    public double getAverageProbesPerMiss() {
+        return missSamples == 0 ? 0.0 : missProbes * 1.0 / missSamples;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Max chain length: %d%n", maxChain));
+        sb.append(String.format("Empty buckets: %.1f%%%n", 100 * getEmptyBucketRatio()));
+        sb.append(String.format("Average non-empty chain: %.2f%n", getAverageChainLength()));
+        sb.append(String.format("Probes per hit: %.2f (%d sampled)%n", getAverageProbesPerHit(), hitSamples));
+        sb.append(String.format("Probes per miss: %.2f (%d sampled)%n", getAverageProbesPerMiss(), missSamples));
+        sb.append("Chain lengths:");
+        for (int i = 0; i < histogram.length; i++) {
+            if (histogram[i] > 0)
+                sb.append(' ').append(i).append(i == histogram.length - 1 ? "+" : "").append('=').append(histogram[i]);
+        }
+        return sb.toString();
+    }
+}
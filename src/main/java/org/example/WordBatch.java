@@ -0,0 +1,80 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * A batch of words for the bulk operations of DictionaryBuilder.
+ * Every word is normalized and hashed once into one shared char array, then the batch is
+ * ordered by home bucket, so the table is visited bucket after bucket instead of at random.
+ * Words of the same bucket keep their original order (so "remove a, remove a" still finds
+ * the word only once).
+ */
+final class WordBatch {
+
+    private char[] chars;
+    private final int[] offsets;
+    private final int[] lengths;
+    // 0 = the word was null or normalized to ""
+    private final int[] hashes;
+    private final int size;
+    private char[] scratch = new char[64];
+    // word handed to the table (tables read a key from position 0)
+
+    WordBatch(String[] words, WordNormalizer key) {
+        size = words.length;
+        offsets = new int[size];
+        lengths = new int[size];
+        hashes = new int[size];
+        chars = new char[Math.max(16, size * 8)];
+        int used = 0;
+        for (int i = 0; i < size; i++) {
+            if (words[i] == null)
+                continue;
+            int len = key.normalizeWord(words[i]);
+            if (used + len > chars.length)
+                chars = Arrays.copyOf(chars, Math.max(used + len, chars.length * 2));
+            System.arraycopy(key.chars(), 0, chars, used, len);
+            offsets[i] = used;
+            lengths[i] = len;
+            hashes[i] = key.hash();
+            used += len;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    // the chars of word i from position 0 (valid until the next call)
+    char[] key(int i) {
+        int len = lengths[i];
+        if (scratch.length < len)
+            scratch = new char[Math.max(len, scratch.length * 2)];
+        System.arraycopy(chars, offsets[i], scratch, 0, len);
+        return scratch;
+    }
+
+    int length(int i) {
+        return lengths[i];
+    }
+
+    int hash(int i) {
+        return hashes[i];
+    }
+
+    // positions of the non-empty words, ordered by their bucket in a table of this capacity
+    int[] bucketOrder(int capacity) {
+        long[] keys = new long[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (lengths[i] > 0)
+                keys[n++] = ((long) WordTable.indexForHash(hashes[i], capacity) << 32) | i;
+            // bucket in the high bits, position in the low bits: sorting keeps the order inside a bucket
+        }
+        Arrays.sort(keys, 0, n);
+        int[] order = new int[n];
+        for (int k = 0; k < n; k++)
+            order[k] = (int) keys[k];
+        return order;
+    }
+}
@@ -0,0 +1,110 @@
+package org.example;
+
+import java.util.Locale;
+
+/**
+ * Normalizes words (lower case, only [a-z0-9'] kept, runs of other chars become one space, trimmed)
+ * into a reused char buffer and computes their hash, so lookups do not allocate.
+ * The polynomial hash is computed while normalizing, any other HashStrategy runs over the result.
+ * One instance is not thread-safe: each thread / dictionary uses its own.
+ */
+final class WordNormalizer {
+
+    private char[] chars = new char[64];
+    // normalized key of the current operation
+    private int hash;
+    // hash of the chars with strategy
+    private final HashStrategy strategy;
+    private final boolean polynomial;
+
+    WordNormalizer() {
+        this(HashStrategy.polynomial());
+    }
+
+    WordNormalizer(HashStrategy strategy) {
+        this.strategy = strategy;
+        this.polynomial = strategy == HashStrategy.polynomial();
+    }
+
+    // buffer holding the last normalized word (valid until the next call)
+    char[] chars() {
+        return chars;
+    }
+
+    int hash() {
+        return hash;
+    }
+
+    // covert words into normal words (Lowercase - Remove - trim space)
+    static String normalize(String word) {
+        if (word == null) return "";
+        word = word.toLowerCase();
+        word = word.replaceAll("[^a-z0-9']+", " ").trim();
+        return word;
+    }
+
+    // same result as normalize(), but in one pass over the chars, without regex:
+    // the normalized word goes into chars(), its hash into hash(), returns its length
+    int normalizeWord(String word) {
+        int n = word.length();
+        if (chars.length < n)
+            chars = new char[Math.max(n, chars.length * 2)];
+        // the normalized word is never longer than the input
+        char[] buf = chars;
+        int len = 0;
+        int h = 0;
+        boolean gap = false;
+        // a run of removed chars is seen, it becomes one space between two tokens
+        for (int i = 0; i < n; i++) {
+            char c = word.charAt(i);
+            if (c >= 0x80 || (c == 'I' && isTurkicLocale()))
+                return copy(normalize(word));
+            // toLowerCase() can turn some non-ASCII chars into a-z, let normalize() handle those
+            if (c >= 'A' && c <= 'Z')
+                c += 'a' - 'A';
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '\'') {
+                if (gap && len > 0) {
+                    buf[len++] = ' ';
+                    h = 31 * h + ' ';
+                }
+                gap = false;
+                buf[len++] = c;
+                h = 31 * h + c;
+            } else {
+                gap = true;
+            }
+        }
+        hash = polynomial ? h : strategy.hash(buf, len);
+        return len;
+    }
+
+    // copy a word that is already normalized into chars(), returns its length
+    int copy(String normalized) {
+        int len = copyChars(normalized);
+        hash = polynomial ? normalized.hashCode() : strategy.hash(chars, len);
+        return len;
+    }
+
+    // only the chars, for words whose hash is already known
+    int copyChars(String normalized) {
+        int len = normalized.length();
+        if (chars.length < len)
+            chars = new char[Math.max(len, chars.length * 2)];
+        normalized.getChars(0, len, chars, 0);
+        return len;
+    }
+
+    // hash of a normalized word (same value as String.hashCode)
+    static int hashOf(char[] key, int len) {
+        int h = 0;
+        for (int i = 0; i < len; i++)
+            h = 31 * h + key[i];
+        return h;
+    }
+
+    // in Turkish / Azerbaijani toLowerCase() maps 'I' to a dotless i, which normalize() removes
+    static boolean isTurkicLocale() {
+        String language = Locale.getDefault().getLanguage();
+        return language.equals("tr") || language.equals("az");
+    }
+}
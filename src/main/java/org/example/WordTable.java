@@ -0,0 +1,93 @@
+package org.example;
+
+/**
+ * Storage engine behind DictionaryBuilder.
+ * Keys are already normalized words, the hash is computed once by DictionaryBuilder
+ * and passed in so a table never has to hash the text again (it is kept with the entry for resizing).
+ * Each table grows by itself (to 4k+3 prime sizes) when it gets too full.
+ */
+interface WordTable {
+
+    // The key is the first len chars of key. Tables compare it in place
+    // and only copy it into a String when a new word is stored.
+
+    // add delta to the count of the key, return the count after adding
+    // (count == delta means the word was new)
+    int add(char[] key, int len, int hash, int delta);
+
+    // count of the key, 0 if not present
+    int get(char[] key, int len, int hash);
+
+    // remove the key, return the count it had (0 if it was not present)
+    int remove(char[] key, int len, int hash);
+
+    // visit every word with its hash and count (no order)
+    void forEach(EntryVisitor visitor);
+
+    // visit the words of buckets / slots [from, to) of the current table, in bucket order
+    // (a resize in progress is not finished, so this only sees every word while isResizing() is false)
+    void forEachInBuckets(int from, int to, EntryVisitor visitor);
+
+    // point-in-time copy: later changes to either table do not show up in the other
+    // (a resize in progress is finished first)
+    WordTable snapshot();
+
+    // number of buckets / slots
+    int capacity();
+
+    // load factor above which the table grows (may be lower than the one it was created with)
+    double maxLoadFactor();
+
+    // number of different words stored
+    int size();
+
+    // true while entries are still being moved to a bigger table
+    boolean isResizing();
+
+    // move a word that is found to the front of its bucket (only tables with chained buckets do this)
+    default void setMoveToFront(boolean enabled) {
+    }
+
+    // bytes reserved for the word characters when the table keeps them outside of Strings
+    // (byte arena, native key segment), removed words not dropped yet included; 0 otherwise
+    default long keyBytes() {
+        return 0;
+    }
+
+    // free memory held outside the heap (off-heap tables); the table cannot be used afterwards
+    default void close() {
+    }
+
+    // entries / slots a lookup of the key compares with, without moving anything (for statistics):
+    // the number if the key is present, minus the number if it is not
+    int probes(char[] key, int len, int hash);
+
+    // report the length of every bucket (for statistics): the chain length with chaining
+    // (the height for a bucket that became a tree),
+    // with open addressing the probes needed to reach the key in the slot (0 for a free slot)
+    void measureBuckets(BucketVisitor visitor);
+
+    @FunctionalInterface
+    interface EntryVisitor { void visit(String word, int hash, int count); }
+
+    @FunctionalInterface
+    interface BucketVisitor { void bucket(int length); }
+
+    // true if word has exactly the chars key[0..len)
+    static boolean sameWord(String word, char[] key, int len) {
+        if (word.length() != len)
+            return false;
+        for (int i = 0; i < len; i++) {
+            if (word.charAt(i) != key[i])
+                return false;
+        }
+        return true;
+    }
+
+    // get index in Hash
+    static int indexForHash(int hash, int capacity) {
+        int h = hash ^ (hash >>> 16);
+        return (h & 0x7fffffff) % capacity;
+        // clear the sign bit (-h stays negative for Integer.MIN_VALUE)
+    }
+}
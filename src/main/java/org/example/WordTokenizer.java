@@ -0,0 +1,134 @@
+package org.example;
+
+import java.util.Locale;
+
+/**
+ * Turns raw UTF-8 bytes into normalized words in a single pass,
+ * with the same rules as the Scanner based loader of DictionaryBuilder:
+ * lower case, only [a-z0-9'] are kept, everything else separates words,
+ * and a word that is only "'" is skipped.
+ * Bytes are pushed with feed() (in any chunk size, a UTF-8 sequence may be split
+ * between two chunks) and finish() flushes the last word.
+ * Each word is handed to the sink in a reused char[], no String is created.
+ */
+final class WordTokenizer {
+
+    @FunctionalInterface
+    interface TokenSink { void accept(char[] token, int len); }
+
+    private final TokenSink sink;
+    private final boolean turkic;
+    // 'I' lower-cases to a dotless i in Turkish / Azerbaijani, which is not a word char
+
+    private char[] token = new char[64];
+    private int len = 0;
+    // chars of the current word
+
+    private int codePoint = 0;
+    private int remaining = 0;
+    // partially decoded multi-byte UTF-8 char and how many bytes it still needs
+
+    private long bytes = 0;
+    private long tokens = 0;
+
+    WordTokenizer(TokenSink sink) {
+        this.sink = sink;
+        String language = Locale.getDefault().getLanguage();
+        this.turkic = language.equals("tr") || language.equals("az");
+    }
+
+    // tokenize n bytes of buf starting at off
+    void feed(byte[] buf, int off, int n) {
+        bytes += n;
+        int end = off + n;
+        for (int i = off; i < end; i++) {
+            int b = buf[i] & 0xff;
+            if (remaining > 0) {
+                if ((b & 0xc0) == 0x80) {
+                    codePoint = (codePoint << 6) | (b & 0x3f);
+                    if (--remaining == 0)
+                        nonAscii(codePoint);
+                    continue;
+                }
+                // broken sequence --> separator, then b is read as a new char
+                remaining = 0;
+                endToken();
+            }
+            if (b < 0x80) {
+                // ASCII fast path
+                if (b >= 'A' && b <= 'Z') {
+                    if (b == 'I' && turkic) {
+                        endToken();
+                        continue;
+                    }
+                    b += 'a' - 'A';
+                }
+                if ((b >= 'a' && b <= 'z') || (b >= '0' && b <= '9') || b == '\'')
+                    append((char) b);
+                else
+                    endToken();
+            } else if (b >= 0xc2 && b < 0xe0) {
+                codePoint = b & 0x1f;
+                remaining = 1;
+            } else if (b >= 0xe0 && b < 0xf0) {
+                codePoint = b & 0x0f;
+                remaining = 2;
+            } else if (b >= 0xf0 && b < 0xf5) {
+                codePoint = b & 0x07;
+                remaining = 3;
+            } else {
+                // invalid UTF-8 byte --> separator
+                endToken();
+            }
+        }
+    }
+
+    // end of input: flush the last word
+    void finish() {
+        remaining = 0;
+        endToken();
+    }
+
+    long bytes() {
+        return bytes;
+    }
+
+    long tokens() {
+        return tokens;
+    }
+
+    // a few non-ASCII chars lower-case to a-z (e.g. the Kelvin sign), the rest separate words
+    private void nonAscii(int cp) {
+        if (cp == 0x130) {
+            // capital I with dot: "i" + combining dot, except in Turkic locales where it is just "i"
+            append('i');
+            if (!turkic)
+                endToken();
+            return;
+        }
+        int lower = Character.toLowerCase(cp);
+        if ((lower >= 'a' && lower <= 'z') || (lower >= '0' && lower <= '9') || lower == '\'')
+            append((char) lower);
+        else
+            endToken();
+    }
+
+    private void append(char c) {
+        if (len == token.length) {
+            char[] bigger = new char[len * 2];
+            System.arraycopy(token, 0, bigger, 0, len);
+            token = bigger;
+        }
+        token[len++] = c;
+    }
+
+    private void endToken() {
+        if (len == 0)
+            return;
+        if (!(len == 1 && token[0] == '\'')) {
+            sink.accept(token, len);
+            tokens++;
+        }
+        len = 0;
+    }
+}
@@ -0,0 +1,327 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Append-only log of addWord / removeWord operations, so changes made after the
+ * dictionary was loaded survive a restart.
+ * Records are buffered in memory and written together by commit() (group commit);
+ * whether commit() also forces them to disk depends on the SyncPolicy.
+ * Layout (big-endian):
+ *   header: int magic "DWAL", long epoch
+ *   records: byte op (1 = add, 2 = remove), int length, length bytes (normalized word, ASCII)
+ * The words are stored normalized, so replay does not normalize them again.
+ * compact() folds the log into a snapshot and starts an empty log with the next epoch;
+ * the snapshot remembers that epoch, so an old log is never replayed twice.
+ */
+public class WriteAheadLog implements Closeable {
+
+    // when commit() forces the written records to disk
+    public enum SyncPolicy {
+        EVERY_COMMIT,
+        // fsync on every commit (safest, slowest)
+        PERIODIC,
+        // fsync at most once per sync interval
+        NEVER
+        // leave it to the operating system
+    }
+
+    private static final int MAGIC = 0x4457414c;
+    // "DWAL"
+    private static final int HEADER_BYTES = 4 + 8;
+    private static final byte OP_ADD = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int REPLAY_BUFFER_SIZE = 1 << 20;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final SyncPolicy policy;
+    private final long syncIntervalNanos;
+    private long epoch;
+    private long lastSync = System.nanoTime();
+    private boolean unsynced = false;
+    private long syncs = 0;
+
+    private final ByteBuffer pending = ByteBuffer.allocate(BUFFER_SIZE);
+    // records appended since the last commit
+    private final WordNormalizer key = new WordNormalizer();
+
+    public WriteAheadLog(Path path, SyncPolicy policy) throws IOException {
+        this(path, policy, 1000);
+    }
+
+    // open (or create) the log at path; syncIntervalMillis is only used by SyncPolicy.PERIODIC
+    public WriteAheadLog(Path path, SyncPolicy policy, long syncIntervalMillis) throws IOException {
+        if (policy == null)
+            throw new IllegalArgumentException("policy cannot be null");
+        this.path = path;
+        this.policy = policy;
+        this.syncIntervalNanos = Math.max(0, syncIntervalMillis) * 1_000_000L;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_BYTES) {
+                reset(0);
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                readFully(header, 0);
+                header.flip();
+                if (header.getInt() != MAGIC)
+                    throw new IOException(path + " is not a write-ahead log");
+                epoch = header.getLong();
+            }
+            channel.position(channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long epoch() {
+        return epoch;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    // record addWord(word); the word is normalized here, nothing is logged if it normalizes to ""
+    public void logAdd(String word) throws IOException {
+        append(OP_ADD, word);
+    }
+
+    // record removeWord(word)
+    public void logRemove(String word) throws IOException {
+        append(OP_REMOVE, word);
+    }
+
+    private void append(byte op, String word) throws IOException {
+        if (word == null)
+            return;
+        int len = key.normalizeWord(word);
+        if (len == 0)
+            return;
+        if (pending.remaining() < 5 + len)
+            writePending();
+        // buffer full --> write it now, the records stay in order
+        if (pending.remaining() < 5 + len) {
+            // a word longer than the buffer is written on its own
+            ByteBuffer big = ByteBuffer.allocate(5 + len);
+            putRecord(big, op, len);
+            big.flip();
+            writeAll(big);
+            return;
+        }
+        putRecord(pending, op, len);
+    }
+
+    private void putRecord(ByteBuffer buffer, byte op, int len) {
+        char[] chars = key.chars();
+        buffer.put(op);
+        buffer.putInt(len);
+        for (int i = 0; i < len; i++)
+            buffer.put((byte) chars[i]);
+    }
+
+    // write every appended record, then fsync according to the policy
+    public void commit() throws IOException {
+        writePending();
+        if (!unsynced)
+            return;
+        long now = System.nanoTime();
+        if (policy == SyncPolicy.EVERY_COMMIT || (policy == SyncPolicy.PERIODIC && now - lastSync >= syncIntervalNanos)) {
+            channel.force(false);
+            syncs++;
+            lastSync = now;
+            unsynced = false;
+        }
+    }
+
+    private void writePending() throws IOException {
+        if (pending.position() == 0)
+            return;
+        pending.flip();
+        writeAll(pending);
+        pending.clear();
+    }
+
+    private void writeAll(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        unsynced = true;
+    }
+
+    // apply the logged operations to dictionary, return how many records were applied.
+    // baseEpoch is the epoch the dictionary was loaded with (DictionaryBuilder snapshot, 0 for a text file):
+    // a log older than the base was already folded into it and is skipped (and emptied).
+    // Consecutive adds of the same word become one addCount; a torn last record is cut off.
+    public long replay(DictionaryBuilder dictionary, long baseEpoch) throws IOException {
+        commit();
+        if (epoch < baseEpoch) {
+            reset(baseEpoch);
+            return 0;
+        }
+        LogReader in = new LogReader(HEADER_BYTES, channel.size());
+        long applied = 0;
+        char[] word = new char[64];
+        int wordLen = 0;
+        int wordHash = 0;
+        int run = 0;
+        // adds of word not applied yet (a run of the same word becomes one addCount)
+        char[] next = new char[64];
+
+        while (in.ensure(5)) {
+            byte op = in.buffer.get(in.buffer.position());
+            int len = in.buffer.getInt(in.buffer.position() + 1);
+            if ((op != OP_ADD && op != OP_REMOVE) || len <= 0 || !in.ensure(5 + len))
+                break;
+            // garbage or a record cut short --> torn tail
+            in.buffer.position(in.buffer.position() + 5);
+            if (next.length < len)
+                next = new char[Math.max(len, next.length * 2)];
+            for (int i = 0; i < len; i++)
+                next[i] = (char) (in.buffer.get() & 0xff);
+            in.consumed(5 + len);
+            applied++;
+
+            if (op == OP_ADD && run > 0 && Arrays.equals(word, 0, wordLen, next, 0, len)) {
+                run++;
+                continue;
+            }
+            if (run > 0) {
+                dictionary.addCount(word, wordLen, wordHash, run);
+                run = 0;
+            }
+            int hash = dictionary.hashOf(next, len);
+            // hashed like the dictionary does (its HashStrategy)
+            if (op == OP_ADD) {
+                char[] swap = word;
+                word = next;
+                next = swap;
+                wordLen = len;
+                wordHash = hash;
+                run = 1;
+            } else {
+                dictionary.removeNormalized(next, len, hash);
+            }
+        }
+        if (run > 0)
+            dictionary.addCount(word, wordLen, wordHash, run);
+
+        if (in.position < in.end) {
+            // cut off a record that was only partly written (crash during a commit)
+            channel.truncate(in.position);
+            channel.force(false);
+        }
+        channel.position(channel.size());
+        return applied;
+    }
+
+    // reads the log in big chunks; position is the file offset of the first byte not consumed yet
+    private final class LogReader {
+        ByteBuffer buffer = ByteBuffer.allocate(REPLAY_BUFFER_SIZE);
+        long position;
+        final long end;
+
+        LogReader(long position, long end) {
+            this.position = position;
+            this.end = end;
+            buffer.limit(0);
+        }
+
+        // make sure n bytes are available in buffer, false if the file ends before that
+        boolean ensure(int n) throws IOException {
+            if (buffer.remaining() >= n)
+                return true;
+            if (end - position < n)
+                return false;
+            if (buffer.capacity() < n) {
+                ByteBuffer bigger = ByteBuffer.allocate(n);
+                bigger.put(buffer);
+                buffer = bigger;
+            } else {
+                buffer.compact();
+            }
+            long readFrom = position + buffer.position();
+            while (buffer.hasRemaining() && readFrom < end) {
+                int read = channel.read(buffer, readFrom);
+                if (read <= 0)
+                    break;
+                readFrom += read;
+            }
+            buffer.flip();
+            return buffer.remaining() >= n;
+        }
+
+        void consumed(int n) {
+            position += n;
+        }
+    }
+
+    // fold everything into a fresh snapshot at base and start an empty log with the next epoch.
+    // The snapshot is written first (atomically) and is on disk, directory entry included, before
+    // the log is emptied; if saving fails the log is left as it is. If the process dies before the
+    // log is emptied, the old log has a smaller epoch than the snapshot and replay skips it.
+    public void compact(DictionaryBuilder dictionary, Path base) throws IOException {
+        commit();
+        DictionarySnapshot.save(dictionary, base, epoch + 1);
+        reset(epoch + 1);
+    }
+
+    // empty the log and write a header with the given epoch
+    private void reset(long newEpoch) throws IOException {
+        pending.clear();
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putLong(newEpoch);
+        header.flip();
+        while (header.hasRemaining())
+            channel.write(header, HEADER_BYTES - header.remaining());
+        channel.force(false);
+        channel.position(HEADER_BYTES);
+        epoch = newEpoch;
+        unsynced = false;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n < 0)
+                throw new IOException(path + " is truncated");
+            position += n;
+        }
+    }
+
+    // fsyncs done by commit() so far
+    public long syncCount() {
+        return syncs;
+    }
+
+    // size of the log file (without records that are not committed yet)
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writePending();
+            if (unsynced && policy != SyncPolicy.NEVER)
+                channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    // epoch stored in a snapshot written by compact() (0 if the file is not a snapshot of this log)
+    public static long snapshotEpoch(Path snapshot) throws IOException {
+        return DictionarySnapshot.logEpoch(snapshot);
+    }
+}
@@ -0,0 +1,135 @@
+import org.example.ApproximateDictionary;
+import org.example.DictionaryBuilder;
+import org.example.LoadStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares ApproximateDictionary with the exact counts of a DictionaryBuilder on a generated
+ * Zipf-like corpus (a few very common words, a long tail of rare ones).
+ */
+public class ApproximateDictionaryTests {
+
+    private static final int VOCABULARY = 100_000;
+    private static final int TOKENS = 1_000_000;
+
+    @TempDir
+    Path dir;
+
+    // word ranks with probability ~ 1 / rank
+    private static int[] zipfRanks(int n, int vocabulary, long seed) {
+        double[] cumulative = new double[vocabulary];
+        double sum = 0;
+        for (int r = 0; r < vocabulary; r++) {
+            sum += 1.0 / (r + 1);
+            cumulative[r] = sum;
+        }
+        Random random = new Random(seed);
+        int[] ranks = new int[n];
+        for (int i = 0; i < n; i++) {
+            int r = java.util.Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            ranks[i] = r >= 0 ? r : Math.min(-r - 1, vocabulary - 1);
+        }
+        return ranks;
+    }
+
+    private static String word(int rank) {
+        return "word" + rank;
+    }
+
+    @Test
+    public void test01_frequencyErrorWithinBound() {
+        ApproximateDictionary approx = new ApproximateDictionary(1 << 20, 0.0001);
+        DictionaryBuilder exact = new DictionaryBuilder(200_003);
+        for (int rank : zipfRanks(TOKENS, VOCABULARY, 1)) {
+            approx.addWord(word(rank));
+            exact.addWord(word(rank));
+        }
+        assertEquals(exact.getTotalWords(), approx.getTotalWords());
+        assertTrue(approx.memoryBytes() <= 1 << 20, "memory " + approx.memoryBytes());
+
+        double bound = approx.errorBound() * approx.getTotalWords();
+        int beyondBound = 0;
+        for (int rank = 0; rank < VOCABULARY; rank++) {
+            int truth = exact.getFrequency(word(rank));
+            int estimate = approx.getFrequency(word(rank));
+            assertTrue(estimate >= truth, word(rank) + ": " + estimate + " < " + truth);
+            // Count-Min never under-counts
+            if (estimate - truth > bound)
+                beyondBound++;
+        }
+        assertTrue(beyondBound <= (1 - approx.confidence()) * VOCABULARY,
+                beyondBound + " words over-counted by more than " + bound);
+        // the common words are counted almost exactly
+        assertEquals(exact.getFrequency(word(0)), approx.getFrequency(word(0)), bound);
+        assertEquals(0, approx.getFrequency("neverAdded"), bound);
+    }
+
+    @Test
+    public void test02_uniqueWordsEstimate() {
+        ApproximateDictionary approx = new ApproximateDictionary(1 << 20, 0.001);
+        DictionaryBuilder exact = new DictionaryBuilder(200_003);
+        for (int rank : zipfRanks(TOKENS, VOCABULARY, 2)) {
+            approx.addWord(word(rank));
+            exact.addWord(word(rank));
+        }
+        double error = Math.abs(approx.getUniqueWords() - exact.getUniqueWords()) / (double) exact.getUniqueWords();
+        assertTrue(error <= 3 * approx.uniqueWordsError(), "relative error " + error);
+
+        ApproximateDictionary small = new ApproximateDictionary(1 << 20, 0.001);
+        for (int i = 0; i < 100; i++)
+            small.addWord(word(i % 10));
+        assertEquals(10, small.getUniqueWords());
+        // few words --> linear counting is exact enough
+    }
+
+    @Test
+    public void test03_ingestFileCountsLikeDictionaryBuilder() throws IOException {
+        Path file = dir.resolve("corpus.txt");
+        Random random = new Random(3);
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            for (int rank : zipfRanks(200_000, 20_000, 3)) {
+                out.write(random.nextBoolean() ? "Word" + rank : word(rank) + ",");
+                out.write(random.nextInt(12) == 0 ? '\n' : ' ');
+            }
+        }
+        ApproximateDictionary approx = new ApproximateDictionary(1 << 19, 0.0005);
+        DictionaryBuilder exact = new DictionaryBuilder(40_009);
+        LoadStats stats = approx.ingestFile(file.toString());
+        exact.ingestFile(file.toString());
+
+        assertEquals(exact.getTotalWords(), approx.getTotalWords());
+        assertEquals(Files.size(file), stats.getBytes());
+        assertEquals(approx.getTotalWords(), stats.getWords());
+        for (int rank = 0; rank < 100; rank++)
+            assertTrue(approx.getFrequency(word(rank)) >= exact.getFrequency(word(rank)));
+        assertThrows(FileNotFoundException.class, () -> approx.ingestFile(dir.resolve("missing.txt").toString()));
+    }
+
+    @Test
+    public void test04_sizing() {
+        ApproximateDictionary approx = new ApproximateDictionary(1 << 20, 0.001);
+        assertEquals(2719, approx.width());
+        // ceil(e / 0.001)
+        assertTrue(approx.depth() >= 5 && approx.depth() <= 16);
+        assertTrue(approx.memoryBytes() <= 1 << 20);
+
+        assertThrows(IllegalArgumentException.class, () -> new ApproximateDictionary(1000, 0.0001));
+        assertThrows(IllegalArgumentException.class, () -> new ApproximateDictionary(1 << 20, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ApproximateDictionary(1 << 20, 1.5));
+
+        approx.addWord(null);
+        approx.addWord("   ");
+        assertEquals(0, approx.getTotalWords());
+        assertEquals(0, approx.getUniqueWords());
+    }
+}
@@ -0,0 +1,121 @@
+import org.example.ConcurrentDictionaryBuilder;
+import org.example.DictionaryBuilder;
+import org.example.DictionaryEntryNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many threads use one ConcurrentDictionaryBuilder at the same time.
+ * Checks that no update is lost (the throughput is measured by ConcurrentDictionaryBenchmark
+ * in the benchmarks module).
+ */
+public class ConcurrentDictionaryBuilderStressTests {
+
+    private static final int VOCABULARY = 5_000;
+    private static final int OPS_PER_THREAD = 200_000;
+
+    // start all threads at once, wait for all of them
+    private static void runThreads(int threads, Runnable... work) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> list = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Runnable r = work[t % work.length];
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    r.run();
+                } catch (Throwable e) {
+                    synchronized (errors) { errors.add(e); }
+                }
+            });
+            thread.start();
+            list.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : list)
+            thread.join();
+        assertTrue(errors.isEmpty(), () -> "worker failed: " + errors);
+    }
+
+    @Test
+    public void test01_concurrentAddsAreNotLost() throws Exception {
+        int threads = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+        ConcurrentDictionaryBuilder db = new ConcurrentDictionaryBuilder(11);
+        // small start size: the stripes must resize while all threads are adding
+        runThreads(threads, () -> {
+            for (int i = 0; i < OPS_PER_THREAD; i++)
+                db.addWord("w" + (i % VOCABULARY));
+        });
+
+        assertEquals(threads * OPS_PER_THREAD, db.getTotalWords());
+        assertEquals(VOCABULARY, db.getUniqueWords());
+        for (int i = 0; i < VOCABULARY; i++)
+            assertEquals(threads * OPS_PER_THREAD / VOCABULARY, db.getFrequency("w" + i));
+        assertEquals(VOCABULARY, db.getAllWords().size());
+    }
+
+    @Test
+    public void test02_mixedAddGetRemove() throws Exception {
+        ConcurrentDictionaryBuilder db = new ConcurrentDictionaryBuilder(11, 8, DictionaryBuilder.Backend.OPEN_ADDRESSING);
+        int threads = 4;
+        AtomicInteger removedCount = new AtomicInteger();
+        AtomicInteger removedWords = new AtomicInteger();
+
+        // each thread owns its words, adds them 3 times and removes every other one
+        Runnable[] work = new Runnable[threads];
+        for (int t = 0; t < threads; t++) {
+            String prefix = "t" + t + "_";
+            work[t] = () -> {
+                for (int i = 0; i < 20_000; i++) {
+                    for (int k = 0; k < 3; k++)
+                        db.addWord(prefix + i);
+                    assertEquals(3, db.getFrequency(prefix + i));
+                    if (i % 2 == 0) {
+                        try {
+                            db.removeWord(prefix + i);
+                        } catch (DictionaryEntryNotFoundException e) {
+                            throw new AssertionError(e);
+                        }
+                        removedCount.addAndGet(3);
+                        removedWords.incrementAndGet();
+                    }
+                }
+            };
+        }
+        runThreads(threads, work);
+
+        assertEquals(threads * 20_000 - removedWords.get(), db.getUniqueWords());
+        assertEquals(threads * 20_000 * 3 - removedCount.get(), db.getTotalWords());
+        assertEquals(0, db.getFrequency("t0_0"));
+        assertEquals(3, db.getFrequency("t3_1"));
+        assertThrows(DictionaryEntryNotFoundException.class, () -> db.removeWord("t1_2"));
+    }
+
+    @Test
+    public void test03_readsAndAddsForEveryThreadCount() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= 2 * cores; threads *= 2) {
+            ConcurrentDictionaryBuilder db = new ConcurrentDictionaryBuilder(VOCABULARY);
+            String[] words = new String[VOCABULARY];
+            for (int i = 0; i < VOCABULARY; i++)
+                words[i] = "word" + i;
+            runThreads(threads, () -> {
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    String w = words[(i * 31) % VOCABULARY];
+                    if ((i & 3) == 0)
+                        db.getFrequency(w);
+                    else
+                        db.addWord(w);
+                }
+            });
+            assertEquals(threads * (OPS_PER_THREAD - OPS_PER_THREAD / 4), db.getTotalWords());
+        }
+    }
+}
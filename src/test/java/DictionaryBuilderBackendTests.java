@@ -0,0 +1,101 @@
+import org.example.DictionaryBuilder;
+import org.example.DictionaryEntryNotFoundException;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the same random workload on every storage backend
+ * and checks the result against a java.util.HashMap.
+ */
+public class DictionaryBuilderBackendTests {
+
+    @ParameterizedTest
+    @EnumSource(DictionaryBuilder.Backend.class)
+    public void test01_randomWorkloadMatchesHashMap(DictionaryBuilder.Backend backend) throws DictionaryEntryNotFoundException {
+        DictionaryBuilder db = new DictionaryBuilder(11, backend);
+        Map<String, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        int total = 0;
+
+        for (int i = 0; i < 50_000; i++) {
+            String word = "w" + random.nextInt(3000);
+            if (random.nextInt(10) == 0) {
+                Integer count = expected.remove(word);
+                if (count == null) {
+                    assertThrows(DictionaryEntryNotFoundException.class, () -> db.removeWord(word));
+                } else {
+                    db.removeWord(word);
+                    total -= count;
+                }
+            } else {
+                db.addWord(word);
+                expected.merge(word, 1, Integer::sum);
+                total++;
+            }
+        }
+
+        assertEquals(expected.size(), db.getUniqueWords());
+        assertEquals(total, db.getTotalWords());
+        for (Map.Entry<String, Integer> e : expected.entrySet())
+            assertEquals(e.getValue(), db.getFrequency(e.getKey()), e.getKey());
+        assertEquals(0, db.getFrequency("missing"));
+
+        List<String> sorted = new ArrayList<>(expected.keySet());
+        sorted.sort(null);
+        assertEquals(sorted, db.getAllWords());
+        assertEquals(3, db.capacity() % 4, "capacity should stay a 4k+3 number");
+    }
+
+    @ParameterizedTest
+    @EnumSource(DictionaryBuilder.Backend.class)
+    public void test02_longWordsAndRemoveChurn(DictionaryBuilder.Backend backend) throws DictionaryEntryNotFoundException {
+        DictionaryBuilder db = new DictionaryBuilder(11, backend);
+        String longWord = "x".repeat(300);
+        // longer than one length byte of the compact arena
+        db.addWord(longWord);
+        db.addWord(longWord.toUpperCase());
+        // add and remove many words, so removed slots / arena garbage pile up and get rebuilt
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 500; i++)
+                db.addWord("r" + round + "w" + i);
+            for (int i = 0; i < 500; i++)
+                db.removeWord("r" + round + "w" + i);
+        }
+        db.addWord("kept");
+        assertEquals(2, db.getFrequency(longWord));
+        assertEquals(1, db.getFrequency("kept"));
+        assertEquals(0, db.getFrequency("r3w7"));
+        assertEquals(2, db.getUniqueWords());
+        assertEquals(List.of("kept", longWord), db.getAllWords());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = DictionaryBuilder.Backend.class, names = {"COMPACT", "OFF_HEAP"})
+    public void test03_removeAndReAddKeepsTheKeyBytesBounded(DictionaryBuilder.Backend backend) throws DictionaryEntryNotFoundException {
+        try (DictionaryBuilder db = new DictionaryBuilder(1000, backend)) {
+            for (int i = 0; i < 100; i++)
+                db.addWord("live" + i);
+            long before = db.tableStats().getKeyBytes();
+            // the same 100 words, removed and added again: the slots are reused,
+            // the bytes of the removed words have to be dropped by a rebuild
+            for (int i = 0; i < 1_000_000; i++) {
+                String word = "live" + (i % 100);
+                db.removeWord(word);
+                db.addWord(word);
+            }
+            long after = db.tableStats().getKeyBytes();
+            assertTrue(after < 16 * 1024, "key bytes grew from " + before + " to " + after);
+            assertEquals(100, db.getUniqueWords());
+            assertEquals(100, db.getTotalWords());
+            assertEquals(1, db.getFrequency("live42"));
+        }
+    }
+}
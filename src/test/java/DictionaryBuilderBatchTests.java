@@ -0,0 +1,97 @@
+import org.example.DictionaryBuilder;
+import org.example.DictionaryEntryNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the batch operations addAll, getFrequencies and removeAll.
+ */
+public class DictionaryBuilderBatchTests {
+
+    private static String[] randomWords(int n, int vocabulary, long seed) {
+        Random random = new Random(seed);
+        String[] words = new String[n];
+        for (int i = 0; i < n; i++)
+            words[i] = (random.nextBoolean() ? "Word" : "word") + random.nextInt(vocabulary) + (random.nextInt(10) == 0 ? "!" : "");
+        return words;
+    }
+
+    @ParameterizedTest
+    @EnumSource(DictionaryBuilder.Backend.class)
+    public void test01_batchMatchesSingleCalls(DictionaryBuilder.Backend backend) throws DictionaryEntryNotFoundException {
+        String[] words = randomWords(20_000, 3000, 1);
+        DictionaryBuilder single = new DictionaryBuilder(11, backend);
+        DictionaryBuilder batch = new DictionaryBuilder(11, backend);
+        for (String w : words)
+            single.addWord(w);
+        batch.addAll(words);
+        assertEquals(single.getTotalWords(), batch.getTotalWords());
+        assertEquals(single.getUniqueWords(), batch.getUniqueWords());
+        assertEquals(single.getAllWords(), batch.getAllWords());
+
+        String[] queries = randomWords(5000, 4000, 2);
+        int[] frequencies = batch.getFrequencies(queries);
+        for (int i = 0; i < queries.length; i++)
+            assertEquals(single.getFrequency(queries[i]), frequencies[i], queries[i]);
+
+        String[] toRemove = randomWords(2000, 4000, 3);
+        List<String> expectedMissing = new ArrayList<>();
+        for (String w : toRemove) {
+            try {
+                single.removeWord(w);
+            } catch (DictionaryEntryNotFoundException e) {
+                expectedMissing.add(w);
+            }
+        }
+        assertEquals(expectedMissing, batch.removeAll(toRemove));
+        assertEquals(single.getTotalWords(), batch.getTotalWords());
+        assertEquals(single.getUniqueWords(), batch.getUniqueWords());
+        assertEquals(single.getAllWords(), batch.getAllWords());
+    }
+
+    @Test
+    public void test02_nullEmptyAndDuplicates() {
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        db.addAll(new String[]{"apple", null, "", "!!", "Apple", "pear"});
+        assertEquals(3, db.getTotalWords());
+        assertEquals(2, db.getUniqueWords());
+        assertArrayEquals(new int[]{2, 0, 0, 1}, db.getFrequencies(new String[]{"APPLE", null, "", "pear"}));
+
+        // the second "apple" is missing, the first one removed it
+        List<String> missing = db.removeAll(Arrays.asList("apple", "plum", "apple", null));
+        assertEquals(Arrays.asList("plum", "apple", null), missing);
+        assertEquals(1, db.getTotalWords());
+        assertEquals(List.of("pear"), db.getAllWords());
+    }
+
+    @Test
+    public void test03_collectionAndStreamVariants() {
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        db.addAll(List.of("a", "b", "b"));
+        db.addAll(Stream.of("c", "b"));
+        assertArrayEquals(new int[]{1, 3, 1, 0}, db.getFrequencies(List.of("a", "b", "c", "d")));
+        assertArrayEquals(new int[]{1, 3}, db.getFrequencies(Stream.of("a", "b")));
+        assertEquals(List.of("d"), db.removeAll(Stream.of("a", "d")));
+        assertEquals(List.of("b", "c"), db.getAllWords());
+    }
+
+    @Test
+    public void test04_sortedIndexFollowsBatches() {
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        db.addAll(new String[]{"m", "c", "x"});
+        assertEquals(List.of("c", "m", "x"), db.getAllWords());
+        // the index is built now, batches must patch it
+        db.addAll(new String[]{"a", "n"});
+        db.removeAll(new String[]{"x"});
+        assertEquals(List.of("a", "c", "m", "n"), db.getAllWords());
+    }
+}
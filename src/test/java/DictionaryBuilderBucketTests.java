@@ -0,0 +1,93 @@
+import org.example.DictionaryBuilder;
+import org.example.DictionaryEntryNotFoundException;
+import org.example.HashStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Adaptive CHAINED buckets: long chains become trees (and lists again), optional move-to-front.
+ */
+public class DictionaryBuilderBucketTests {
+
+    @Test
+    public void test01_sameHashTreeifiesAndShrinksBack() throws DictionaryEntryNotFoundException {
+        HashStrategy constant = (key, len) -> 42;
+        DictionaryBuilder db = new DictionaryBuilder(10, 0.75, DictionaryBuilder.Backend.CHAINED, constant);
+        for (int i = 0; i < 500; i++) {
+            db.addWord("w" + i);
+            db.addWord("w" + (i / 2));
+        }
+        // the table grew several times while every word was in the one tree
+        assertEquals(500, db.getUniqueWords());
+        assertTrue(db.tableStats().getMaxChainLength() <= 12, "tree height " + db.tableStats().getMaxChainLength());
+        for (int i = 0; i < 500; i++)
+            assertEquals(i < 250 ? 3 : 1, db.getFrequency("w" + i), "w" + i);
+        assertEquals(0, db.getFrequency("missing"));
+
+        for (int i = 3; i < 500; i++)
+            db.removeWord("w" + i);
+        // back to a short list
+        assertEquals(3, db.tableStats().getMaxChainLength());
+        assertEquals(java.util.List.of("w0", "w1", "w2"), db.getAllWords());
+        assertEquals(9, db.getTotalWords());
+        assertThrows(DictionaryEntryNotFoundException.class, () -> db.removeWord("w3"));
+    }
+
+    // long chains (maxLoadFactor 20) under random adds / lookups / removes, checked against a map
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void test02_randomOperations(boolean moveToFront) {
+        DictionaryBuilder db = new DictionaryBuilder(10, 20.0, DictionaryBuilder.Backend.CHAINED, HashStrategy.seeded(5));
+        db.setMoveToFront(moveToFront);
+        Map<String, Integer> expected = new HashMap<>();
+        Random random = new Random(11);
+        for (int step = 0; step < 60_000; step++) {
+            String w = "k" + random.nextInt(3000);
+            int op = random.nextInt(10);
+            if (op < 6) {
+                db.addWord(w);
+                expected.merge(w, 1, Integer::sum);
+            } else if (op < 9) {
+                assertEquals(expected.getOrDefault(w, 0), db.getFrequency(w), w);
+            } else {
+                try {
+                    db.removeWord(w);
+                    assertNotNull(expected.remove(w), w);
+                } catch (DictionaryEntryNotFoundException e) {
+                    assertNull(expected.get(w), w);
+                }
+            }
+        }
+        assertEquals(expected.size(), db.getUniqueWords());
+        assertEquals(new ArrayList<>(new TreeMap<>(expected).keySet()), db.getAllWords());
+        int total = 0;
+        for (Map.Entry<String, Integer> e : expected.entrySet()) {
+            assertEquals(e.getValue(), db.getFrequency(e.getKey()), e.getKey());
+            total += e.getValue();
+        }
+        assertEquals(total, db.getTotalWords());
+    }
+
+    @Test
+    public void test03_moveToFrontFindsHotWordFirst() {
+        HashStrategy constant = (key, len) -> 7;
+        DictionaryBuilder db = new DictionaryBuilder(10, 0.75, DictionaryBuilder.Backend.CHAINED, constant);
+        db.setMoveToFront(true);
+        for (int i = 0; i < 6; i++)
+            db.addWord("w" + i);
+        // one list of 6 words, w0 at the end
+        for (int i = 0; i < 1000; i++)
+            assertEquals(1, db.getFrequency("w0"));
+        assertTrue(db.tableStats().getAverageProbesPerHit() < 1.5,
+                "probes per hit " + db.tableStats().getAverageProbesPerHit());
+    }
+}
@@ -0,0 +1,117 @@
+import org.example.DictionaryBuilder;
+import org.example.DirectoryLoadStats;
+import org.example.LoadStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * loadFromDirectory and .gz files.
+ */
+public class DictionaryBuilderDirectoryTests {
+
+    @TempDir
+    Path dir;
+
+    private static void writeWords(Path file, long seed, int words) throws IOException {
+        Files.createDirectories(file.getParent());
+        OutputStream raw = Files.newOutputStream(file);
+        if (file.toString().endsWith(".gz"))
+            raw = new GZIPOutputStream(raw);
+        Random random = new Random(seed);
+        try (Writer out = new java.io.OutputStreamWriter(raw, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < words; i++) {
+                out.write((random.nextBoolean() ? "Word" : "word") + random.nextInt(500));
+                out.write(random.nextInt(8) == 0 ? ".\n" : " ");
+            }
+        }
+    }
+
+    // 12 shards, half of them compressed, some in a subdirectory, plus files that do not match
+    private List<Path> writeShards() throws IOException {
+        List<Path> shards = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Path file = (i < 8 ? dir : dir.resolve("more")).resolve("shard" + i + (i % 2 == 0 ? ".txt" : ".txt.gz"));
+            writeWords(file, i, 2000 + 500 * i);
+            shards.add(file);
+        }
+        writeWords(dir.resolve("notes.csv"), 99, 100);
+        return shards;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3})
+    public void test01_sameCountsAsSequential(int parallelism) throws Exception {
+        List<Path> shards = writeShards();
+        DictionaryBuilder sequential = new DictionaryBuilder(100);
+        for (Path shard : shards)
+            sequential.ingestFile(shard.toString());
+
+        DictionaryBuilder db = new DictionaryBuilder(100);
+        DirectoryLoadStats stats = db.loadFromDirectory(dir, "{*,**/*}.{txt,gz}", parallelism);
+        assertEquals(sequential.getTotalWords(), db.getTotalWords());
+        assertEquals(sequential.getUniqueWords(), db.getUniqueWords());
+        assertEquals(sequential.getAllWords(), db.getAllWords());
+        for (String w : sequential.getAllWords())
+            assertEquals(sequential.getFrequency(w), db.getFrequency(w), w);
+
+        assertEquals(12, stats.getFileCount());
+        assertEquals(db.getTotalWords(), stats.getWords());
+        long bytes = 0;
+        for (LoadStats file : stats.getFileStats().values())
+            bytes += file.getBytes();
+        assertEquals(bytes, stats.getBytes());
+        assertFalse(stats.getFileStats().containsKey(dir.resolve("notes.csv")));
+        assertEquals(shards.stream().sorted().toList(), new ArrayList<>(stats.getFileStats().keySet()));
+    }
+
+    @Test
+    public void test02_globOnlyTopLevel() throws Exception {
+        writeShards();
+        DictionaryBuilder db = new DictionaryBuilder(100);
+        DirectoryLoadStats stats = db.loadFromDirectory(dir, "*.txt", 2);
+        assertEquals(4, stats.getFileCount());
+        // shard0, 2, 4, 6 (the .txt files directly in dir)
+        assertEquals(0, new DictionaryBuilder(10).loadFromDirectory(dir, "*.none").getFileCount());
+    }
+
+    @Test
+    public void test03_gzipFile() throws Exception {
+        Path plain = dir.resolve("a.txt");
+        Path packed = dir.resolve("a.txt.gz");
+        writeWords(plain, 5, 5000);
+        writeWords(packed, 5, 5000);
+        DictionaryBuilder expected = new DictionaryBuilder(100);
+        expected.ingestFile(plain.toString());
+        DictionaryBuilder db = new DictionaryBuilder(100);
+        LoadStats stats = db.ingestFile(packed.toString());
+        assertEquals(expected.getAllWords(), db.getAllWords());
+        assertEquals(expected.getTotalWords(), db.getTotalWords());
+        assertEquals(Files.size(plain), stats.getBytes());
+        // text bytes, not the compressed size
+    }
+
+    @Test
+    public void test04_brokenFileFailsTheLoad() throws Exception {
+        writeShards();
+        Files.write(dir.resolve("broken.gz"), "not gzip at all".getBytes(StandardCharsets.US_ASCII));
+        DictionaryBuilder db = new DictionaryBuilder(100);
+        IOException e = assertThrows(IOException.class, () -> db.loadFromDirectory(dir, "{*,**/*}.{txt,gz}", 2));
+        assertTrue(e.getMessage().contains("broken.gz"), e.getMessage());
+        assertThrows(IOException.class, () -> db.loadFromDirectory(dir.resolve("missing"), "*.txt"));
+    }
+}
@@ -0,0 +1,121 @@
+import org.example.DictionaryBuilder;
+import org.example.HashStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hash strategies: crafted colliding words, extreme hash values and snapshots.
+ */
+public class DictionaryBuilderHashTests {
+
+    @TempDir
+    Path dir;
+
+    // n different words with the same String.hashCode: "c0" and "an" have the same hash
+    // (99 * 31 + 48 == 97 * 31 + 110), so every word made of such blocks has the same hash too
+    static String[] collidingWords(int n) {
+        int blocks = 32 - Integer.numberOfLeadingZeros(Math.max(1, n - 1));
+        String[] words = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int b = 0; b < blocks; b++)
+                sb.append((i >>> b & 1) == 0 ? "c0" : "an");
+            words[i] = sb.toString();
+        }
+        return words;
+    }
+
+    @ParameterizedTest
+    @EnumSource(DictionaryBuilder.Backend.class)
+    public void test01_collidingWordsStaySpread(DictionaryBuilder.Backend backend) {
+        String[] words = collidingWords(2000);
+        for (String w : words)
+            assertEquals(words[0].hashCode(), w.hashCode());
+
+        try (DictionaryBuilder polynomial = new DictionaryBuilder(2000, 0.75, backend, HashStrategy.polynomial());
+             DictionaryBuilder seeded = new DictionaryBuilder(2000, backend)) {
+            for (String w : words) {
+                polynomial.addWord(w);
+                seeded.addWord(w);
+            }
+            assertEquals(words.length, polynomial.getUniqueWords());
+            assertEquals(words.length, seeded.getUniqueWords());
+            int polynomialChain = polynomial.tableStats().getMaxChainLength();
+            if (backend == DictionaryBuilder.Backend.CHAINED) {
+                // all in one bucket, but the bucket is a balanced tree
+                assertTrue(polynomialChain <= 16, "tree height " + polynomialChain);
+            } else {
+                // all in one probe sequence
+                assertTrue(polynomialChain >= words.length / 2);
+            }
+            assertTrue(seeded.tableStats().getMaxChainLength() <= 16,
+                    "longest chain " + seeded.tableStats().getMaxChainLength());
+            for (String w : words)
+                assertEquals(1, seeded.getFrequency(w), w);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(DictionaryBuilder.Backend.class)
+    public void test02_minValueIndex(DictionaryBuilder.Backend backend) throws Exception {
+        // 0x80008000 ^ (0x80008000 >>> 16) == Integer.MIN_VALUE, which -h cannot make positive
+        HashStrategy extreme = (key, len) -> 0x80008000;
+        try (DictionaryBuilder db = new DictionaryBuilder(10, 0.75, backend, extreme)) {
+            for (int i = 0; i < 50; i++)
+                db.addWord("word" + (i % 20));
+            assertEquals(20, db.getUniqueWords());
+            assertEquals(3, db.getFrequency("word1"));
+            db.removeWord("word1");
+            assertEquals(0, db.getFrequency("word1"));
+            assertEquals(19, db.getAllWords().size());
+        }
+    }
+
+    @Test
+    public void test03_seededHash() {
+        char[] word = "some longer word with more than eight chars".toCharArray();
+        HashStrategy a = HashStrategy.seeded(1);
+        assertEquals(a.hash(word, word.length), HashStrategy.seeded(1).hash(word, word.length));
+        assertNotEquals(a.hash(word, word.length), HashStrategy.seeded(2).hash(word, word.length));
+        assertNotEquals(a.hash(word, word.length), a.hash(word, word.length - 1));
+        assertEquals(HashStrategy.seeded(7), HashStrategy.seeded(7));
+        assertEquals("some".hashCode(), HashStrategy.polynomial().hash("some".toCharArray(), 4));
+    }
+
+    @Test
+    public void test04_snapshotKeepsStrategy() throws IOException {
+        Path file = dir.resolve("seeded.snap");
+        try (DictionaryBuilder db = new DictionaryBuilder(100, 0.75, DictionaryBuilder.Backend.OPEN_ADDRESSING, HashStrategy.seeded(42))) {
+            for (int i = 0; i < 1000; i++)
+                db.addWord("w" + (i % 300));
+            db.save(file);
+        }
+        DictionaryBuilder loaded = DictionaryBuilder.load(file);
+        assertEquals(HashStrategy.seeded(42), loaded.hashStrategy());
+        assertEquals(4, loaded.getFrequency("w1"));
+
+        DictionaryBuilder rehashed = DictionaryBuilder.load(file, HashStrategy.polynomial());
+        assertEquals(HashStrategy.polynomial(), rehashed.hashStrategy());
+        assertEquals(300, rehashed.getUniqueWords());
+        assertEquals(4, rehashed.getFrequency("w1"));
+        rehashed.addWord("w1");
+        assertEquals(5, rehashed.getFrequency("w1"));
+        assertEquals(300, rehashed.getUniqueWords());
+
+        // a custom strategy cannot be rebuilt from the file
+        HashStrategy custom = (key, len) -> len;
+        Path customFile = dir.resolve("custom.snap");
+        DictionaryBuilder db = new DictionaryBuilder(10, 0.75, DictionaryBuilder.Backend.CHAINED, custom);
+        db.addWord("apple");
+        db.save(customFile);
+        assertThrows(IOException.class, () -> DictionaryBuilder.load(customFile));
+        assertEquals(1, DictionaryBuilder.load(customFile, custom).getFrequency("apple"));
+    }
+}
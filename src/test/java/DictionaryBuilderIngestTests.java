@@ -0,0 +1,106 @@
+import org.example.DictionaryBuilder;
+import org.example.LoadStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The FileChannel / byte tokenizer loader must give the same dictionary as the Scanner loader.
+ */
+public class DictionaryBuilderIngestTests {
+
+    @TempDir
+    Path dir;
+
+    private static void assertSameDictionary(DictionaryBuilder expected, DictionaryBuilder actual) {
+        assertEquals(expected.getTotalWords(), actual.getTotalWords());
+        assertEquals(expected.getUniqueWords(), actual.getUniqueWords());
+        assertEquals(expected.getAllWords(), actual.getAllWords());
+        for (String w : expected.getAllWords())
+            assertEquals(expected.getFrequency(w), actual.getFrequency(w), w);
+    }
+
+    @Test
+    public void test01_sameWordsAsScannerLoader() throws Exception {
+        String text = "Hello, World! It's a 'test'.\r\n"
+                + "' lone apostrophe '' double\n"
+                + "Café naïve Kelvin İstanbul Über\n"
+                + "tabs\tand   spaces line-sep don't-stop 42nd\n"
+                + "no newline at end";
+        Path file = dir.resolve("small.txt");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+
+        DictionaryBuilder scanner = new DictionaryBuilder(11);
+        scanner.loadFromFile(file.toString());
+        DictionaryBuilder channel = new DictionaryBuilder(11);
+        LoadStats stats = channel.ingestFile(file.toString());
+
+        assertSameDictionary(scanner, channel);
+        assertEquals(Files.size(file), stats.getBytes());
+        assertEquals(channel.getTotalWords(), stats.getWords());
+    }
+
+    @Test
+    public void test02_largeRandomFile() throws Exception {
+        Random random = new Random(3);
+        String[] pieces = {"alpha", "Beta", "gamma's", "été", "x", "'", "--", "Z9", "\n", " ", ",", "\t"};
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 400_000; i++) {
+            sb.append(pieces[random.nextInt(pieces.length)]);
+            if (random.nextBoolean())
+                sb.append(' ');
+        }
+        // bigger than the 1 MB read buffer, so words and UTF-8 chars cross buffer borders
+        Path file = dir.resolve("large.txt");
+        Files.writeString(file, sb, StandardCharsets.UTF_8);
+
+        DictionaryBuilder scanner = new DictionaryBuilder(11);
+        scanner.loadFromFile(file.toString());
+        DictionaryBuilder channel = new DictionaryBuilder(11);
+        channel.ingestFile(file.toString());
+        assertSameDictionary(scanner, channel);
+    }
+
+    @Test
+    public void test03_missingFile() {
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        assertThrows(FileNotFoundException.class, () -> db.ingestFile(dir.resolve("missing.txt").toString()));
+        assertThrows(FileNotFoundException.class, () -> db.ingestFileParallel(dir.resolve("missing.txt").toString(), 2));
+    }
+
+    @Test
+    public void test04_parallelLoadMatchesSequential() throws Exception {
+        Random random = new Random(5);
+        String[] pieces = {"one", "Two", "three's", "ünder", "q", "'", "!!", "7up", "\n", " ", "\r\n"};
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 300_000; i++) {
+            sb.append(pieces[random.nextInt(pieces.length)]);
+            if (random.nextInt(3) == 0)
+                sb.append(' ');
+        }
+        Path file = dir.resolve("parallel.txt");
+        Files.writeString(file, sb, StandardCharsets.UTF_8);
+
+        DictionaryBuilder sequential = new DictionaryBuilder(11);
+        sequential.loadFromFile(file.toString());
+        for (int parallelism : new int[]{1, 2, 3, 8}) {
+            DictionaryBuilder parallel = new DictionaryBuilder(11);
+            LoadStats stats = parallel.ingestFileParallel(file.toString(), parallelism);
+            assertSameDictionary(sequential, parallel);
+            assertEquals(Files.size(file), stats.getBytes());
+        }
+        // a file without any separator can only be one range
+        Path oneWord = dir.resolve("oneword.txt");
+        Files.writeString(oneWord, "abcdefghij".repeat(100));
+        DictionaryBuilder single = new DictionaryBuilder(11);
+        single.ingestFileParallel(oneWord.toString(), 4);
+        assertEquals(1, single.getTotalWords());
+    }
+}
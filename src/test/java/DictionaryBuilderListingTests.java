@@ -0,0 +1,148 @@
+import org.example.DictionaryBuilder;
+import org.example.DictionaryEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sorted listing (cached index), range and page queries, top-k, prefix search.
+ */
+public class DictionaryBuilderListingTests {
+
+    @Test
+    public void test01_listStaysSortedAcrossChanges() throws Exception {
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        TreeSet<String> expected = new TreeSet<>();
+        Random random = new Random(11);
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 40; i++) {
+                String w = "w" + random.nextInt(500);
+                if (random.nextInt(4) == 0 && expected.contains(w)) {
+                    db.removeWord(w);
+                    expected.remove(w);
+                } else {
+                    db.addWord(w);
+                    expected.add(w);
+                }
+            }
+            assertEquals(new ArrayList<>(expected), db.getAllWords(), "round " + round);
+        }
+    }
+
+    @Test
+    public void test02_removeThenAddAgain() throws Exception {
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        db.addWord("b");
+        db.addWord("a");
+        assertEquals(List.of("a", "b"), db.getAllWords());
+        db.removeWord("a");
+        db.addWord("a");
+        db.addWord("c");
+        db.removeWord("c");
+        assertEquals(List.of("a", "b"), db.getAllWords());
+    }
+
+    @Test
+    public void test03_listIsACopy() {
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        db.addWord("kiwi");
+        db.getAllWords().clear();
+        assertEquals(List.of("kiwi"), db.getAllWords());
+    }
+
+    @Test
+    public void test04_rangeAndPage() {
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        for (String w : new String[]{"pear", "apple", "fig", "banana", "cherry", "date"})
+            db.addWord(w);
+        assertEquals(List.of("banana", "cherry", "date"), db.getWordsBetween("b", "e"));
+        assertEquals(List.of("fig", "pear"), db.getWordsBetween("fig", null));
+        assertEquals(List.of("apple"), db.getWordsBetween(null, "b"));
+        assertTrue(db.getWordsBetween("x", "a").isEmpty());
+
+        assertEquals(List.of("cherry", "date"), db.getWords(2, 2));
+        assertEquals(List.of("pear"), db.getWords(5, 10));
+        assertTrue(db.getWords(10, 3).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> db.getWords(-1, 2));
+    }
+
+    @Test
+    public void test05_topK() {
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        String[] words = {"the", "the", "the", "a", "a", "of", "of", "zebra", "apple"};
+        for (String w : words)
+            db.addWord(w);
+
+        List<DictionaryEntry> top = db.topK(3);
+        assertEquals(3, top.size());
+        assertEquals("the", top.get(0).getWord());
+        assertEquals(3, top.get(0).getCount());
+        // equal counts: alphabetical order
+        assertEquals("a", top.get(1).getWord());
+        assertEquals("of", top.get(2).getWord());
+        assertEquals(2, top.get(2).getCount());
+
+        assertEquals(5, db.topK(100).size());
+        assertEquals("apple", db.topK(4).get(3).getWord());
+        assertTrue(db.topK(0).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> db.topK(-1));
+    }
+
+    @Test
+    public void test06_prefixSearch() throws Exception {
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        for (String w : new String[]{"car", "card", "care", "care", "cart", "cat", "dog", "ca"})
+            db.addWord(w);
+
+        List<DictionaryEntry> car = db.getWordsWithPrefix("Car");
+        assertEquals(List.of("car", "card", "care", "cart"), car.stream().map(DictionaryEntry::getWord).toList());
+        assertEquals(2, car.get(2).getCount());
+        assertEquals(2, db.getWordsWithPrefix("car", 2).size());
+        assertTrue(db.getWordsWithPrefix("x").isEmpty());
+
+        // kept in sync with addWord / removeWord
+        db.removeWord("card");
+        db.addWord("carp");
+        assertEquals(List.of("car", "care", "carp", "cart"),
+                db.getWordsWithPrefix("car").stream().map(DictionaryEntry::getWord).toList());
+    }
+
+    @Test
+    public void test07_queriesBetweenChanges() throws Exception {
+        // every query runs on the sorted words plus the pending changes, which are folded in now and then
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        TreeSet<String> expected = new TreeSet<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 3000; i++) {
+            db.addWord("w" + i);
+            expected.add("w" + i);
+        }
+        db.getAllWords();
+        for (int step = 0; step < 4000; step++) {
+            String w = "w" + random.nextInt(6000);
+            if (random.nextBoolean() && expected.contains(w)) {
+                db.removeWord(w);
+                expected.remove(w);
+            } else {
+                db.addWord(w);
+                expected.add(w);
+            }
+            List<String> all = new ArrayList<>(expected);
+            int offset = random.nextInt(all.size() + 5);
+            assertEquals(all.subList(Math.min(offset, all.size()), Math.min(offset + 7, all.size())),
+                    db.getWords(offset, 7), "step " + step);
+            String from = "w" + random.nextInt(6000);
+            String to = from + "5";
+            assertEquals(new ArrayList<>(expected.subSet(from, to)), db.getWordsBetween(from, to), "step " + step);
+            String prefix = "w" + random.nextInt(60);
+            List<String> matches = all.stream().filter(x -> x.startsWith(prefix)).limit(20).toList();
+            assertEquals(matches, db.getWordsWithPrefix(prefix, 20).stream().map(DictionaryEntry::getWord).toList());
+        }
+        assertEquals(new ArrayList<>(expected), db.getAllWords());
+    }
+}
@@ -0,0 +1,65 @@
+import org.example.DictionaryBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The one-pass normalization of addWord / getFrequency / removeWord
+ * must give the same words as the original regex based one.
+ */
+public class DictionaryBuilderNormalizeTests {
+
+    // the original normalization
+    private static String reference(String word) {
+        return word.toLowerCase().replaceAll("[^a-z0-9']+", " ").trim();
+    }
+
+    @Test
+    public void test01_punctuationAndSpaces() {
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        db.addWord("  Hello,   World!! ");
+        db.addWord("hello world");
+        assertEquals(2, db.getFrequency("HELLO -- world"));
+        assertEquals(List.of("hello world"), db.getAllWords());
+    }
+
+    @Test
+    public void test02_nonAsciiMatchesReference() {
+        String[] words = {"Café", "naïve", "Kelvin", "ÀB", "don't", "'", "?!", "A b"};
+        for (String w : words) {
+            DictionaryBuilder db = new DictionaryBuilder(11);
+            db.addWord(w);
+            String expected = reference(w);
+            if (expected.isEmpty())
+                assertEquals(0, db.getUniqueWords(), w);
+            else
+                assertEquals(List.of(expected), db.getAllWords(), w);
+        }
+    }
+
+    @Test
+    public void test03_randomAsciiMatchesReference() {
+        Random random = new Random(7);
+        String alphabet = "aZq09' \t-.,!_Xx";
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int n = random.nextInt(12);
+            for (int j = 0; j < n; j++)
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            String w = sb.toString();
+            String expected = reference(w);
+
+            DictionaryBuilder db = new DictionaryBuilder(11);
+            db.addWord(w);
+            if (expected.isEmpty()) {
+                assertEquals(0, db.getUniqueWords(), w);
+            } else {
+                assertEquals(List.of(expected), db.getAllWords(), w);
+                assertEquals(1, db.getFrequency(expected), w);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+import org.example.DictionaryBuilder;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The public test suite, run against the off-heap (Foreign Memory API) backend.
+ */
+public class DictionaryBuilderOffHeapPublicTests extends DictionaryBuilderPublicTests {
+
+    @Override
+    protected DictionaryBuilder createDictionary(int estimatedEntries) {
+        return new DictionaryBuilder(estimatedEntries, DictionaryBuilder.Backend.OFF_HEAP);
+    }
+
+    @Test
+    public void test50_close_freesNativeMemory() {
+        DictionaryBuilder db = createDictionary(11);
+        for (int i = 0; i < 5000; i++)
+            db.addWord("word" + i);
+        assertEquals(1, db.getFrequency("word4999"));
+        db.close();
+        assertThrows(IllegalStateException.class, () -> db.getFrequency("word1"));
+        db.close();
+        // closing twice is allowed
+    }
+}
@@ -0,0 +1,55 @@
+import org.example.DictionaryBuilder;
+import org.example.DictionaryEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prefix search through the sorted index gives the same words as a linear scan
+ * of getAllWords() with startsWith (the timing is in the benchmarks module, PrefixSearchBenchmark).
+ */
+public class DictionaryBuilderPrefixSearchTests {
+
+    private static final int VOCABULARY = 20_000;
+    private static final int QUERIES = 300;
+
+    @Test
+    public void test01_indexMatchesLinearScan() throws Exception {
+        Random random = new Random(9);
+        DictionaryBuilder db = new DictionaryBuilder(VOCABULARY);
+        for (int i = 0; i < VOCABULARY; i++) {
+            StringBuilder sb = new StringBuilder();
+            int len = 3 + random.nextInt(8);
+            for (int j = 0; j < len; j++)
+                sb.append((char) ('a' + random.nextInt(26)));
+            db.addWord(sb.toString());
+        }
+        long found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            String prefix = "" + (char) ('a' + random.nextInt(26)) + (char) ('a' + random.nextInt(26));
+            if (i % 3 == 0) {
+                // pending changes in the index
+                db.addWord(prefix + "x");
+                db.removeWord(db.getAllWords().get(random.nextInt(db.getUniqueWords())));
+            }
+            List<String> expected = linearScan(db, prefix);
+            List<String> actual = db.getWordsWithPrefix(prefix).stream().map(DictionaryEntry::getWord).toList();
+            assertEquals(expected, actual, prefix);
+            found += actual.size();
+        }
+        assertTrue(found > 0);
+    }
+
+    private static List<String> linearScan(DictionaryBuilder db, String prefix) {
+        List<String> result = new ArrayList<>();
+        for (String w : db.getAllWords()) {
+            if (w.startsWith(prefix))
+                result.add(w);
+        }
+        return result;
+    }
+}
@@ -23,6 +23,7 @@
 
 import org.example.DictionaryBuilder;
 import org.example.DictionaryEntryNotFoundException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -38,9 +39,19 @@ public class DictionaryBuilderPublicTests {
 
     private DictionaryBuilder db;
 
+    // subclasses run the same suite against another storage backend
+    protected DictionaryBuilder createDictionary(int estimatedEntries) {
+        return new DictionaryBuilder(estimatedEntries);
+    }
+
     @BeforeEach
     public void setUp() {
-        db = new DictionaryBuilder(11); // small estimate
+        db = createDictionary(11); // small estimate
+    }
+
+    @AfterEach
+    public void tearDown() {
+        db.close();
     }
 
     // === Constructor ===
@@ -0,0 +1,75 @@
+import org.example.DictionaryBuilder;
+import org.example.DictionaryEntryNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the automatic, incremental growth of the DictionaryBuilder table.
+ */
+public class DictionaryBuilderResizeTests {
+
+    @Test
+    public void test01_tableGrowsPastMaxLoadFactor() {
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        int start = db.capacity();
+        for (int i = 0; i < 5000; i++)
+            db.addWord("w" + i);
+        assertTrue(db.capacity() > start, "capacity should grow");
+        assertEquals(3, db.capacity() % 4, "capacity should stay a 4k+3 number");
+        assertTrue(db.estimatedLoadFactor() <= db.maxLoadFactor());
+        assertEquals(5000, db.getUniqueWords());
+    }
+
+    @Test
+    public void test02_wordsStayReachableDuringResize() throws DictionaryEntryNotFoundException {
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            String w = "word" + i;
+            db.addWord(w);
+            db.addWord(w);
+            added.add(w);
+            // every word added so far must be found, also in the middle of a resize
+            if (db.isResizing()) {
+                for (String old : added)
+                    assertEquals(2, db.getFrequency(old), old);
+            }
+        }
+        for (int i = 0; i < 2000; i += 2)
+            db.removeWord("word" + i);
+        assertEquals(1000, db.getUniqueWords());
+        assertEquals(2000, db.getTotalWords());
+        assertEquals(0, db.getFrequency("word0"));
+        assertEquals(2, db.getFrequency("word1"));
+        assertEquals(1000, db.getAllWords().size());
+    }
+
+    @Test
+    public void test03_customMaxLoadFactor() {
+        DictionaryBuilder db = new DictionaryBuilder(11, 4.0);
+        int start = db.capacity();
+        for (int i = 0; i < 3 * start; i++)
+            db.addWord("x" + i);
+        assertEquals(start, db.capacity(), "should not grow below the threshold");
+        assertThrows(IllegalArgumentException.class, () -> new DictionaryBuilder(11, 0));
+    }
+
+    @Test
+    public void test04_openAddressingCapsMaxLoadFactor() {
+        for (DictionaryBuilder.Backend backend : DictionaryBuilder.Backend.values()) {
+            DictionaryBuilder db = new DictionaryBuilder(11, 0.9, backend);
+            double expected = backend == DictionaryBuilder.Backend.CHAINED ? 0.9 : 0.5;
+            assertEquals(expected, db.maxLoadFactor(), backend.name());
+            for (int i = 0; i < 1000; i++)
+                db.addWord("y" + i);
+            if (!db.isResizing())
+                assertTrue(db.estimatedLoadFactor() <= db.maxLoadFactor(), backend.name());
+            assertEquals(0.3, new DictionaryBuilder(11, 0.3, backend).maxLoadFactor(), backend.name());
+            db.close();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+import org.example.DictionaryBuilder;
+import org.example.HashStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * mergeFrom, subtract and intersect between dictionaries of the same or a different capacity
+ * and hash strategy.
+ */
+public class DictionaryBuilderSetOperationsTests {
+
+    // how two dictionaries are set up against each other
+    enum Pairing { SAME_CAPACITY, OTHER_CAPACITY, OTHER_HASH }
+
+    private static Map<String, Integer> randomCounts(long seed, int words) {
+        Map<String, Integer> counts = new TreeMap<>();
+        Random random = new Random(seed);
+        for (int i = 0; i < words; i++)
+            counts.merge("w" + random.nextInt(3000), 1, Integer::sum);
+        return counts;
+    }
+
+    private static DictionaryBuilder fill(DictionaryBuilder db, Map<String, Integer> counts) {
+        counts.forEach((word, count) -> {
+            for (int i = 0; i < count; i++)
+                db.addWord(word);
+        });
+        return db;
+    }
+
+    private static DictionaryBuilder other(DictionaryBuilder.Backend backend, Pairing pairing) {
+        switch (pairing) {
+            case SAME_CAPACITY: return new DictionaryBuilder(5000, backend);
+            case OTHER_CAPACITY: return new DictionaryBuilder(50, backend);
+            default: return new DictionaryBuilder(5000, 0.75, backend, HashStrategy.seeded(42));
+        }
+    }
+
+    private static void assertCounts(Map<String, Integer> expected, DictionaryBuilder db) {
+        assertEquals(new ArrayList<>(expected.keySet()), db.getAllWords());
+        assertEquals(expected.size(), db.getUniqueWords());
+        assertEquals(expected.values().stream().mapToInt(Integer::intValue).sum(), db.getTotalWords());
+        expected.forEach((word, count) -> assertEquals(count, db.getFrequency(word), word));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Pairing.class)
+    public void test01_mergeFrom(Pairing pairing) {
+        for (DictionaryBuilder.Backend backend : DictionaryBuilder.Backend.values()) {
+            Map<String, Integer> a = randomCounts(1, 20_000);
+            Map<String, Integer> b = randomCounts(2, 15_000);
+            try (DictionaryBuilder db = fill(new DictionaryBuilder(5000, backend), a);
+                 DictionaryBuilder other = fill(other(backend, pairing), b)) {
+                assertEquals(pairing != Pairing.OTHER_CAPACITY, db.capacity() == other.capacity());
+                db.mergeFrom(other);
+                Map<String, Integer> expected = new TreeMap<>(a);
+                b.forEach((word, count) -> expected.merge(word, count, Integer::sum));
+                assertCounts(expected, db);
+                assertCounts(b, other);
+                // other is not changed
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Pairing.class)
+    public void test02_subtract(Pairing pairing) {
+        for (DictionaryBuilder.Backend backend : DictionaryBuilder.Backend.values()) {
+            Map<String, Integer> a = randomCounts(3, 20_000);
+            Map<String, Integer> b = randomCounts(4, 20_000);
+            b.put("only in other", 3);
+            try (DictionaryBuilder db = fill(new DictionaryBuilder(5000, backend), a);
+                 DictionaryBuilder other = fill(other(backend, pairing), b)) {
+                db.subtract(other);
+                Map<String, Integer> expected = new TreeMap<>();
+                a.forEach((word, count) -> {
+                    int left = count - b.getOrDefault(word, 0);
+                    if (left > 0)
+                        expected.put(word, left);
+                });
+                assertTrue(expected.size() < a.size());
+                assertCounts(expected, db);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Pairing.class)
+    public void test03_intersect(Pairing pairing) {
+        for (DictionaryBuilder.Backend backend : DictionaryBuilder.Backend.values()) {
+            Map<String, Integer> a = randomCounts(5, 4000);
+            Map<String, Integer> b = randomCounts(6, 6000);
+            try (DictionaryBuilder db = fill(new DictionaryBuilder(5000, backend), a);
+                 DictionaryBuilder other = fill(other(backend, pairing), b)) {
+                db.intersect(other);
+                Map<String, Integer> expected = new TreeMap<>();
+                a.forEach((word, count) -> {
+                    if (b.containsKey(word))
+                        expected.put(word, Math.min(count, b.get(word)));
+                });
+                assertTrue(expected.size() < a.size());
+                assertCounts(expected, db);
+            }
+        }
+    }
+
+    @Test
+    public void test04_whileResizingAndSelf() {
+        DictionaryBuilder db = new DictionaryBuilder(3, 0.75, DictionaryBuilder.Backend.CHAINED);
+        DictionaryBuilder other = new DictionaryBuilder(3, 0.75, DictionaryBuilder.Backend.CHAINED);
+        int words = 0;
+        while (words < 20 || !db.isResizing()) {
+            // stop while db is in the middle of a resize
+            db.addWord("a" + words);
+            db.addWord("a" + words);
+            if (words % 2 == 0)
+                other.addWord("a" + words);
+            words++;
+        }
+        db.intersect(other);
+        Map<String, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < words; i += 2)
+            expected.put("a" + i, 1);
+        assertCounts(expected, db);
+
+        assertThrows(IllegalArgumentException.class, () -> db.mergeFrom(db));
+        assertThrows(IllegalArgumentException.class, () -> db.subtract(null));
+    }
+}
@@ -0,0 +1,178 @@
+import org.example.DictionaryBuilder;
+import org.example.DictionaryEntryNotFoundException;
+import org.example.HashStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * snapshot(): point-in-time copies that do not change while the dictionary does (and the other way round).
+ */
+public class DictionaryBuilderSnapshotViewTests {
+
+    // every word with its count, read through the public API
+    private static Map<String, Integer> contents(DictionaryBuilder db) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (String word : db.getAllWords())
+            counts.put(word, db.getFrequency(word));
+        return counts;
+    }
+
+    private static void assertContents(Map<String, Integer> expected, DictionaryBuilder db) {
+        assertEquals(expected, contents(db));
+        assertEquals(expected.size(), db.getUniqueWords());
+        assertEquals(expected.values().stream().mapToInt(Integer::intValue).sum(), db.getTotalWords());
+    }
+
+    // random adds (new words too, so the table grows) and removes
+    private static void churn(DictionaryBuilder db, long seed, int steps) {
+        Random random = new Random(seed);
+        for (int i = 0; i < steps; i++) {
+            String word = "w" + random.nextInt(4000);
+            if (random.nextInt(4) == 0) {
+                try {
+                    db.removeWord(word);
+                } catch (DictionaryEntryNotFoundException e) {
+                    // not there
+                }
+            } else {
+                db.addWord(word);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(DictionaryBuilder.Backend.class)
+    public void test01_snapshotKeepsItsPointInTime(DictionaryBuilder.Backend backend) {
+        try (DictionaryBuilder db = new DictionaryBuilder(100, backend)) {
+            churn(db, 1, 3000);
+            Map<String, Integer> first = contents(db);
+            try (DictionaryBuilder early = db.snapshot()) {
+                churn(db, 2, 20_000);
+                Map<String, Integer> second = contents(db);
+                try (DictionaryBuilder late = db.snapshot()) {
+                    churn(db, 3, 20_000);
+                    Map<String, Integer> live = contents(db);
+
+                    assertContents(first, early);
+                    assertContents(second, late);
+                    assertContents(live, db);
+                    assertNotEquals(first, second);
+                    assertEquals(late.tableStats().getSize(), second.size());
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(DictionaryBuilder.Backend.class)
+    public void test02_changingTheSnapshotLeavesTheDictionaryAlone(DictionaryBuilder.Backend backend) {
+        try (DictionaryBuilder db = new DictionaryBuilder(100, backend)) {
+            churn(db, 4, 5000);
+            Map<String, Integer> before = contents(db);
+            try (DictionaryBuilder copy = db.snapshot()) {
+                churn(copy, 5, 20_000);
+                assertNotEquals(before, contents(copy));
+                assertContents(before, db);
+            }
+            assertContents(before, db);
+        }
+    }
+
+    @Test
+    public void test03_treesAndMoveToFront() throws Exception {
+        // colliding words share one bucket, which becomes a tree
+        String[] words = DictionaryBuilderHashTests.collidingWords(64);
+        DictionaryBuilder db = new DictionaryBuilder(100, 0.75, DictionaryBuilder.Backend.CHAINED, HashStrategy.polynomial());
+        db.setMoveToFront(true);
+        for (int round = 0; round < 3; round++) {
+            for (String w : words)
+                db.addWord(w);
+            for (int i = 0; i < 200; i++)
+                db.addWord("plain" + i);
+        }
+        Map<String, Integer> before = contents(db);
+        DictionaryBuilder copy = db.snapshot();
+        for (String w : words)
+            db.addWord(w);
+        for (int i = 0; i < 60; i++)
+            db.removeWord(words[i]);
+        for (int i = 0; i < 200; i += 3) {
+            db.getFrequency("plain" + i);
+            db.removeWord("plain" + i);
+        }
+        for (int i = 0; i < 5000; i++)
+            db.addWord("more" + i);
+        // grows: the shared buckets are migrated as copies
+        assertContents(before, copy);
+        assertEquals(4, db.getFrequency(words[63]));
+        assertEquals(0, db.getFrequency(words[0]));
+        assertEquals(3, db.getFrequency("plain1"));
+        assertEquals(3, copy.getFrequency(words[0]));
+    }
+
+    @Test
+    public void test04_readersDoNotBlockTheWriter() throws Exception {
+        DictionaryBuilder db = new DictionaryBuilder(16);
+        ReentrantLock lock = new ReentrantLock();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread writer = new Thread(() -> {
+            Random random = new Random(6);
+            for (int i = 0; i < 300_000; i++) {
+                String word = "w" + random.nextInt(20_000);
+                lock.lock();
+                try {
+                    if (random.nextInt(5) == 0 && db.getFrequency(word) > 0)
+                        db.removeWord(word);
+                    else
+                        db.addWord(word);
+                } catch (DictionaryEntryNotFoundException e) {
+                    failure.set(e);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            done.set(true);
+        });
+        writer.start();
+
+        int snapshots = 0;
+        while (!done.get() || snapshots == 0) {
+            DictionaryBuilder view;
+            lock.lock();
+            try {
+                view = db.snapshot();
+            } finally {
+                lock.unlock();
+            }
+            // read without the lock while the writer goes on
+            List<String> words = view.getAllWords();
+            long total = 0;
+            for (String w : words) {
+                int count = view.getFrequency(w);
+                assertTrue(count > 0, w);
+                total += count;
+            }
+            assertEquals(view.getUniqueWords(), words.size());
+            assertEquals(view.getTotalWords(), total);
+            assertEquals(new ArrayList<>(words), view.getAllWords());
+            snapshots++;
+        }
+        writer.join();
+        assertNull(failure.get());
+        assertTrue(snapshots > 0);
+    }
+}
@@ -0,0 +1,129 @@
+import org.example.DictionaryBuilder;
+import org.example.DictionaryStats;
+import org.example.TableStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the hash table statistics (chain lengths, sampled probes) and their MBean.
+ */
+public class DictionaryBuilderStatsTests {
+
+    @ParameterizedTest
+    @EnumSource(DictionaryBuilder.Backend.class)
+    public void test01_emptyTable(DictionaryBuilder.Backend backend) {
+        TableStats stats = new DictionaryBuilder(100, backend).tableStats();
+        assertEquals(0, stats.getMaxChainLength());
+        assertEquals(1.0, stats.getEmptyBucketRatio());
+        assertEquals(stats.getCapacity(), stats.getBuckets());
+        assertEquals(0.0, stats.getAverageProbesPerHit());
+    }
+
+    @ParameterizedTest
+    @EnumSource(DictionaryBuilder.Backend.class)
+    public void test02_histogramCoversEveryBucket(DictionaryBuilder.Backend backend) {
+        DictionaryBuilder db = new DictionaryBuilder(1000, backend);
+        for (int i = 0; i < 800; i++)
+            db.addWord("w" + i);
+        TableStats stats = db.tableStats();
+        assertEquals(800, stats.getSize());
+        assertFalse(db.isResizing());
+        assertEquals(db.capacity(), stats.getBuckets());
+        assertTrue(stats.getMaxChainLength() >= 1);
+        long[] histogram = stats.getChainLengthHistogram();
+        long occupied = stats.getBuckets() - histogram[0];
+        if (backend == DictionaryBuilder.Backend.CHAINED) {
+            long entries = 0;
+            for (int i = 0; i < histogram.length; i++)
+                entries += i * histogram[i];
+            assertEquals(800, entries, "chain lengths add up to the number of words");
+        } else {
+            assertEquals(800, occupied, "one used slot per word");
+        }
+        assertEquals(1.0 - occupied * 1.0 / db.capacity(), stats.getEmptyBucketRatio(), 1e-9);
+    }
+
+    @ParameterizedTest
+    @EnumSource(DictionaryBuilder.Backend.class)
+    public void test03_probesAreSampled(DictionaryBuilder.Backend backend) {
+        DictionaryBuilder db = new DictionaryBuilder(1000, backend);
+        for (int i = 0; i < 1000; i++)
+            db.addWord("w" + i);
+        for (int i = 0; i < 10_000; i++) {
+            db.getFrequency("w" + (i % 1000));
+            db.getFrequency("missing" + i);
+        }
+        TableStats stats = db.tableStats();
+        assertTrue(stats.getHitSamples() > 0);
+        assertTrue(stats.getMissSamples() > 0);
+        // roughly one lookup out of 64 is sampled
+        assertTrue(stats.getHitSamples() + stats.getMissSamples() < 21_000 / 16);
+        assertTrue(stats.getAverageProbesPerHit() >= 1.0);
+        assertTrue(stats.getAverageProbesPerHit() < 4.0, "probes per hit: " + stats.getAverageProbesPerHit());
+    }
+
+    @Test
+    public void test04_mbeanServesRefreshedValues() throws Exception {
+        DictionaryBuilder db = new DictionaryBuilder(100);
+        db.addWord("apple");
+        db.addWord("apple");
+        db.addWord("pear");
+        DictionaryStats stats = new DictionaryStats();
+        stats.refresh(db);
+        stats.register("statsTest");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("org.example:type=DictionaryStats,name=\"statsTest\"");
+            assertEquals(3, server.getAttribute(name, "TotalWords"));
+            assertEquals(2, server.getAttribute(name, "UniqueWords"));
+            assertEquals(db.capacity(), server.getAttribute(name, "Capacity"));
+            db.addWord("plum");
+            assertEquals(2, server.getAttribute(name, "UniqueWords"), "values change only on refresh");
+            stats.refresh(db);
+            assertEquals(3, server.getAttribute(name, "UniqueWords"));
+        } finally {
+            stats.unregister();
+        }
+    }
+
+    @Test
+    public void test05_trackedMBeanReadsOnDemand() throws Exception {
+        DictionaryBuilder db = new DictionaryBuilder(100);
+        db.addWord("apple");
+        ReentrantLock lock = new ReentrantLock();
+        DictionaryStats stats = new DictionaryStats();
+        stats.track(() -> db, lock);
+        stats.register("trackedStatsTest");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("org.example:type=DictionaryStats,name=\"trackedStatsTest\"");
+            assertEquals(1, server.getAttribute(name, "UniqueWords"));
+            db.addWord("pear");
+            db.addWord("pear");
+            assertEquals(2, server.getAttribute(name, "UniqueWords"), "no refresh() needed");
+            assertEquals(3, server.getAttribute(name, "TotalWords"));
+            assertEquals(2, stats.tableStats().getSize());
+            // a reader waits for the thread that holds the lock
+            lock.lock();
+            Thread reader = new Thread(() -> stats.getUniqueWords());
+            try {
+                reader.start();
+                reader.join(200);
+                assertTrue(reader.isAlive());
+            } finally {
+                lock.unlock();
+            }
+            reader.join();
+        } finally {
+            stats.unregister();
+        }
+    }
+}
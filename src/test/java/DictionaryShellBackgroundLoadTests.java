@@ -0,0 +1,87 @@
+import org.example.DictionaryShell;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for loading the text file in the background while the shell already takes commands.
+ */
+public class DictionaryShellBackgroundLoadTests {
+
+    @TempDir
+    Path dir;
+
+    // a file big enough that the first commands usually arrive before it is loaded
+    private Path writeText() throws Exception {
+        Path file = dir.resolve("words.txt");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200_000; i++)
+            sb.append("word").append(i % 5000).append(i % 10 == 9 ? ".\n" : " ");
+        sb.append("apple apple\n");
+        Files.writeString(file, sb);
+        return file;
+    }
+
+    private String run(String commands, String... args) {
+        InputStream stdin = System.in;
+        PrintStream console = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setIn(new ByteArrayInputStream(commands.getBytes(StandardCharsets.UTF_8)));
+        System.setOut(new PrintStream(captured, true));
+        try {
+            DictionaryShell.main(args);
+        } finally {
+            System.setIn(stdin);
+            System.setOut(console);
+        }
+        return captured.toString();
+    }
+
+    @Test
+    public void test01_writesWhileLoadingAreMergedInOrder() throws Exception {
+        Path file = writeText();
+        String output = run("add banana\nadd apple\ndelete word7\ndelete missing\nsearch apple\nsearch banana\nsearch word7\nstats\nexit\n",
+                file.toString());
+        assertTrue(output.contains("3 instance(s) of \"apple\" found."), output);
+        assertTrue(output.contains("1 instance(s) of \"banana\" found."), output);
+        assertTrue(output.contains("\"word7\" not found."), output);
+        // delete of a word that is in neither the file nor the pending changes
+        assertTrue(output.contains("\"missing\" not found."), output);
+        assertTrue(output.contains("Total unique words: " + (5000 - 1 + 2)), output);
+    }
+
+    @Test
+    public void test02_staleReadsSeePendingChanges() throws Exception {
+        Path file = writeText();
+        String output = run("add banana\nadd banana\nsearch banana\nstats\nlist\nexit\n", file.toString(), "--stale-ok");
+        assertTrue(output.contains("2 instance(s) of \"banana\" found."), output);
+        // list does not wait, but the session itself is consistent
+        assertTrue(output.contains("Total words:"), output);
+        String again = run("add Word3\ndelete word3\nadd WORD3!\nadd word3\nsearch word3\nexit\n",
+                file.toString(), "--stale-ok");
+        // a pending removal hides the loaded count, later adds count from 0 again
+        // (the load may also be finished already, the counts are the same)
+        assertTrue(again.contains("2 instance(s) of \"word3\" found."), again);
+        assertTrue(again.contains("will be added when loading finishes.") || again.contains("\"word3\" count incremented."), again);
+    }
+
+    @Test
+    public void test03_pendingChangesAreLogged() throws Exception {
+        Path file = writeText();
+        Path wal = dir.resolve("changes.wal");
+        run("add banana\ndelete word3\nexit\n", file.toString(), "--wal", wal.toString());
+        String output = run("search banana\nsearch word3\nsearch word4\nexit\n", file.toString(), "--wal", wal.toString());
+        assertTrue(output.contains("1 instance(s) of \"banana\" found."), output);
+        assertTrue(output.contains("\"word3\" not found."), output);
+        assertTrue(output.contains("40 instance(s) of \"word4\" found."), output);
+    }
+}
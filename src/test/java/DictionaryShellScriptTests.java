@@ -0,0 +1,157 @@
+import org.example.DictionaryBuilder;
+import org.example.DictionaryShell;
+import org.example.WriteAheadLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the script mode of DictionaryShell (--script file), run in the same JVM.
+ */
+public class DictionaryShellScriptTests {
+
+    @TempDir
+    Path dir;
+
+    private String runScript(String commands, String... options) throws Exception {
+        Path script = dir.resolve("commands.txt");
+        Files.writeString(script, commands);
+        PrintStream console = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured, true));
+        String[] args = new String[options.length + 2];
+        args[0] = "--script";
+        args[1] = script.toString();
+        System.arraycopy(options, 0, args, 2, options.length);
+        try {
+            DictionaryShell.main(args);
+        } finally {
+            System.setOut(console);
+        }
+        return captured.toString();
+    }
+
+    @Test
+    public void test01_noBannerNoPrompt() throws Exception {
+        String output = runScript("add pear\nadd apple\nadd pear\nsearch pear\nexit\n");
+        assertEquals(String.join(System.lineSeparator(),
+                "\"pear\" added.",
+                "\"apple\" added.",
+                "\"pear\" count incremented.",
+                "2 instance(s) of \"pear\" found.",
+                "Quitting...", ""), output);
+    }
+
+    @Test
+    public void test02_listStreamsSortedWords() throws Exception {
+        StringBuilder commands = new StringBuilder();
+        for (int i = 999; i >= 0; i--)
+            commands.append("add w").append(String.format("%04d", i)).append('\n');
+        commands.append("delete w0500\nlist\n");
+        // no exit: the end of the script ends the session
+        String[] lines = runScript(commands.toString()).split("\\R");
+        assertEquals(1000 + 1 + 999, lines.length);
+        for (int i = 0; i < 999; i++) {
+            int n = i < 500 ? i : i + 1;
+            assertEquals(String.format("w%04d", n), lines[1001 + i]);
+        }
+    }
+
+    @Test
+    public void test03_missingScript() throws Exception {
+        PrintStream console = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured, true));
+        try {
+            DictionaryShell.main(new String[]{"--script", dir.resolve("none.txt").toString()});
+        } finally {
+            System.setOut(console);
+        }
+        assertTrue(captured.toString().contains("cannot be read"), captured.toString());
+    }
+
+    // read output lines until one starts with prefix
+    private static String readUntil(BufferedReader output, String prefix) throws Exception {
+        String line;
+        while ((line = output.readLine()) != null) {
+            if (line.startsWith(prefix))
+                return line;
+        }
+        throw new AssertionError("no line starting with " + prefix);
+    }
+
+    @Test
+    public void test04_oneLogCommitPerBatch() throws Exception {
+        Path log = dir.resolve("dict.wal");
+        InputStream stdin = System.in;
+        PrintStream console = System.out;
+        PipedOutputStream commands = new PipedOutputStream();
+        System.setIn(new PipedInputStream(commands, 1 << 16));
+        PipedInputStream printed = new PipedInputStream(1 << 16);
+        System.setOut(new PrintStream(new PipedOutputStream(printed), true));
+        Thread shell = new Thread(() -> DictionaryShell.main(new String[]{"--script", "-", "--wal", log.toString()}));
+        try {
+            shell.start();
+            BufferedReader output = new BufferedReader(new InputStreamReader(printed, StandardCharsets.UTF_8));
+            assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+                // each batch is written at once, so the shell finds all of it waiting
+                StringBuilder adds = new StringBuilder();
+                for (int i = 0; i < 50; i++)
+                    adds.append("add w").append(i).append('\n');
+                commands.write(adds.toString().getBytes(StandardCharsets.UTF_8));
+                readUntil(output, "\"w49\" added.");
+                commands.write("stats\n".getBytes(StandardCharsets.UTF_8));
+                assertTrue(readUntil(output, "Write-ahead log:").endsWith(" 1 sync(s)"));
+
+                StringBuilder deletes = new StringBuilder();
+                for (int i = 0; i < 20; i++)
+                    deletes.append("delete w").append(i).append('\n');
+                commands.write(deletes.toString().getBytes(StandardCharsets.UTF_8));
+                readUntil(output, "\"w19\" deleted.");
+                commands.write("stats\n".getBytes(StandardCharsets.UTF_8));
+                assertTrue(readUntil(output, "Write-ahead log:").endsWith(" 2 sync(s)"));
+
+                commands.write("exit\n".getBytes(StandardCharsets.UTF_8));
+                readUntil(output, "Quitting...");
+                shell.join();
+            });
+        } finally {
+            System.setIn(stdin);
+            System.setOut(console);
+        }
+        DictionaryBuilder replayed = new DictionaryBuilder(11);
+        try (WriteAheadLog wal = new WriteAheadLog(log, WriteAheadLog.SyncPolicy.NEVER)) {
+            assertEquals(70, wal.replay(replayed, 0));
+        }
+        assertEquals(30, replayed.getUniqueWords());
+    }
+
+    @Test
+    public void test05_loadRestartsTheLogOnTheLoadedDictionary() throws Exception {
+        Path snap = dir.resolve("x.snap");
+        Path log = dir.resolve("x.wal");
+        String output = runScript("add x\nsave " + snap + "\nadd y\nload " + snap + "\nadd z\nexit\n",
+                "--wal", log.toString());
+        assertTrue(output.contains("Loaded 1 words from " + snap + " (start with --snapshot " + snap + ")."), output);
+
+        // restart: the log is replayed on top of the loaded snapshot, y was dropped by the load
+        output = runScript("search x\nsearch y\nsearch z\nexit\n",
+                "--snapshot", snap.toString(), "--wal", log.toString());
+        assertTrue(output.contains("1 instance(s) of \"x\" found."), output);
+        assertTrue(output.contains("\"y\" not found."), output);
+        assertTrue(output.contains("1 instance(s) of \"z\" found."), output);
+    }
+}
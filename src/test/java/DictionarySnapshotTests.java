@@ -0,0 +1,110 @@
+import org.example.DictionaryBuilder;
+import org.example.PrimeUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * save(Path) / load(Path) round trips.
+ */
+public class DictionarySnapshotTests {
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @EnumSource(DictionaryBuilder.Backend.class)
+    public void test01_roundTrip(DictionaryBuilder.Backend backend) throws Exception {
+        DictionaryBuilder db = new DictionaryBuilder(11, backend);
+        for (int i = 0; i < 3000; i++) {
+            db.addWord("w" + (i % 700));
+            db.addWord("don't stop " + (i % 13));
+        }
+        db.removeWord("w5");
+        Path file = dir.resolve("dict.snap");
+        db.save(file);
+
+        DictionaryBuilder loaded = DictionaryBuilder.load(file);
+        assertEquals(db.getTotalWords(), loaded.getTotalWords());
+        assertEquals(db.getUniqueWords(), loaded.getUniqueWords());
+        assertEquals(db.capacity(), loaded.capacity());
+        assertEquals(db.getAllWords(), loaded.getAllWords());
+        for (String w : db.getAllWords())
+            assertEquals(db.getFrequency(w), loaded.getFrequency(w), w);
+
+        // the loaded dictionary keeps working normally
+        loaded.addWord("w1");
+        assertEquals(db.getFrequency("w1") + 1, loaded.getFrequency("w1"));
+        assertFalse(Files.exists(dir.resolve("dict.snap.tmp")));
+    }
+
+    @Test
+    public void test02_emptyDictionary() throws Exception {
+        Path file = dir.resolve("empty.snap");
+        new DictionaryBuilder(11).save(file);
+        DictionaryBuilder loaded = DictionaryBuilder.load(file);
+        assertEquals(0, loaded.getUniqueWords());
+        assertTrue(loaded.getAllWords().isEmpty());
+    }
+
+    @Test
+    public void test03_badFiles() throws Exception {
+        assertThrows(FileNotFoundException.class, () -> DictionaryBuilder.load(dir.resolve("missing.snap")));
+
+        Path text = dir.resolve("text.txt");
+        Files.writeString(text, "this is not a snapshot at all, just some words");
+        assertThrows(IOException.class, () -> DictionaryBuilder.load(text));
+
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        db.addWord("apple");
+        Path file = dir.resolve("cut.snap");
+        db.save(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length - 2));
+        assertThrows(IOException.class, () -> DictionaryBuilder.load(file));
+    }
+
+    @Test
+    public void test04_headerSizesAreChecked() throws Exception {
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        db.addWord("apple");
+        db.addWord("pear");
+        Path file = dir.resolve("good.snap");
+        db.save(file);
+        byte[] good = Files.readAllBytes(file);
+        // header: magic, version, backend (4 each), maxLoadFactor (8), capacity, totalWords, uniqueWords
+        assertHeaderRejected(good, 20, 1000, "1000");
+        assertHeaderRejected(good, 28, 50_000_000, "50000000");
+        assertHeaderRejected(good, 28, Integer.MAX_VALUE, String.valueOf(Integer.MAX_VALUE));
+        assertHeaderRejected(good, 24, 1, "totalWords 1");
+
+        // a huge capacity with few words is not allocated, the words load into a smaller table
+        int huge = PrimeUtils.next4kPlus3Prime(1 << 29);
+        byte[] bytes = good.clone();
+        ByteBuffer.wrap(bytes).putInt(20, huge);
+        Path big = dir.resolve("big.snap");
+        Files.write(big, bytes);
+        DictionaryBuilder loaded = DictionaryBuilder.load(big);
+        assertTrue(loaded.capacity() < huge);
+        assertEquals(db.getAllWords(), loaded.getAllWords());
+        assertEquals(1, loaded.getFrequency("pear"));
+    }
+
+    private void assertHeaderRejected(byte[] good, int offset, int value, String named) throws IOException {
+        byte[] bytes = good.clone();
+        ByteBuffer.wrap(bytes).putInt(offset, value);
+        Path file = dir.resolve("bad.snap");
+        Files.write(file, bytes);
+        IOException e = assertThrows(IOException.class, () -> DictionaryBuilder.load(file));
+        assertTrue(e.getMessage().contains(named), e.getMessage());
+    }
+}
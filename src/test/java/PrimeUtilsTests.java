@@ -0,0 +1,82 @@
+import org.example.PrimeUtils;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Miller-Rabin isPrime, next4kPlus3Prime for int and long, and the resize ladder.
+ */
+public class PrimeUtilsTests {
+
+    // plain trial division, the reference for small numbers
+    private static boolean slowIsPrime(long n) {
+        if (n < 2)
+            return false;
+        for (long d = 2; d * d <= n; d++) {
+            if (n % d == 0)
+                return false;
+        }
+        return true;
+    }
+
+    @Test
+    public void test01_smallNumbersMatchTrialDivision() {
+        for (int n = -5; n < 200_000; n++)
+            assertEquals(slowIsPrime(n), PrimeUtils.isPrime(n), "n = " + n);
+    }
+
+    @Test
+    public void test02_largeNumbers() {
+        assertTrue(PrimeUtils.isPrime(Integer.MAX_VALUE));
+        assertTrue(PrimeUtils.isPrime(1_000_000_007L));
+        assertFalse(PrimeUtils.isPrime(4_759_123_141L));
+        // = 48781 * 97561, a strong pseudoprime to the bases 2, 7 and 61
+        assertFalse(PrimeUtils.isPrime(3_215_031_751L));
+        // = 151 * 751 * 28351, the smallest strong pseudoprime to 2, 3, 5 and 7
+        assertTrue(PrimeUtils.isPrime(Long.MAX_VALUE - 24));
+        // largest prime below 2^63
+        assertFalse(PrimeUtils.isPrime(Long.MAX_VALUE));
+        assertFalse(PrimeUtils.isPrime(3_825_123_056_546_413_051L));
+        // strong pseudoprime to every base up to 23
+
+        Random random = new Random(3);
+        for (int i = 0; i < 2000; i++) {
+            long n = random.nextLong() >>> 1 | 1;
+            assertEquals(BigInteger.valueOf(n).isProbablePrime(60), PrimeUtils.isPrime(n), "n = " + n);
+        }
+    }
+
+    @Test
+    public void test03_next4kPlus3Prime() {
+        assertEquals(3, PrimeUtils.next4kPlus3Prime(-10));
+        assertEquals(7, PrimeUtils.next4kPlus3Prime(4));
+        assertEquals(19, PrimeUtils.next4kPlus3Prime(12));
+        assertEquals(Integer.MAX_VALUE, PrimeUtils.next4kPlus3Prime(Integer.MAX_VALUE - 10));
+        long big = PrimeUtils.next4kPlus3Prime(10_000_000_000L);
+        assertTrue(big >= 10_000_000_000L);
+        assertEquals(3, big % 4);
+        assertTrue(PrimeUtils.isPrime(big));
+        for (long c = 10_000_000_000L; c < big; c++)
+            assertFalse(c % 4 == 3 && PrimeUtils.isPrime(c), "missed " + c);
+    }
+
+    @Test
+    public void test04_ladder() {
+        int previous = 0;
+        for (int n = 3; n > 0 && n < Integer.MAX_VALUE / 2; n = 2 * n + 1) {
+            int rung = PrimeUtils.ladder4kPlus3Prime(n);
+            assertTrue(rung >= n);
+            assertTrue(rung <= Math.max(n + 8L, (long) (n * 1.2) + 1), n + " -> " + rung);
+            // at most one rung (2^(1/4)) above
+            assertEquals(3, rung % 4);
+            assertTrue(PrimeUtils.isPrime(rung));
+            assertTrue(rung > previous);
+            previous = rung;
+        }
+        assertEquals(Integer.MAX_VALUE, PrimeUtils.ladder4kPlus3Prime(Integer.MAX_VALUE - 1));
+        assertEquals(3, PrimeUtils.ladder4kPlus3Prime(1));
+    }
+}
@@ -0,0 +1,152 @@
+import org.example.DictionaryBuilder;
+import org.example.WriteAheadLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Logging, replay, torn tails and compaction of WriteAheadLog.
+ */
+public class WriteAheadLogTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void test01_replayRestoresChanges() throws Exception {
+        Path log = dir.resolve("dict.wal");
+        DictionaryBuilder live = new DictionaryBuilder(11);
+        try (WriteAheadLog wal = new WriteAheadLog(log, WriteAheadLog.SyncPolicy.NEVER)) {
+            for (int i = 0; i < 5000; i++) {
+                String w = (i % 3 == 0) ? "Apple!" : "w" + (i % 250);
+                live.addWord(w);
+                wal.logAdd(w);
+                if (i % 100 == 0)
+                    wal.commit();
+            }
+            live.removeWord("w7");
+            wal.logRemove("w7");
+            live.addWord("w7");
+            wal.logAdd("w7");
+            wal.commit();
+        }
+
+        DictionaryBuilder restored = new DictionaryBuilder(11);
+        try (WriteAheadLog wal = new WriteAheadLog(log, WriteAheadLog.SyncPolicy.EVERY_COMMIT)) {
+            assertEquals(5002, wal.replay(restored, 0));
+        }
+        assertEquals(live.getTotalWords(), restored.getTotalWords());
+        assertEquals(live.getAllWords(), restored.getAllWords());
+        assertEquals(live.getFrequency("apple"), restored.getFrequency("apple"));
+        assertEquals(1, restored.getFrequency("w7"));
+    }
+
+    @Test
+    public void test02_tornTailIsCutOff() throws Exception {
+        Path log = dir.resolve("torn.wal");
+        try (WriteAheadLog wal = new WriteAheadLog(log, WriteAheadLog.SyncPolicy.EVERY_COMMIT)) {
+            wal.logAdd("kept");
+            wal.logAdd("lost");
+            wal.commit();
+        }
+        // simulate a crash in the middle of writing the last record
+        try (FileChannel ch = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            ch.truncate(ch.size() - 2);
+        }
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        try (WriteAheadLog wal = new WriteAheadLog(log, WriteAheadLog.SyncPolicy.EVERY_COMMIT)) {
+            assertEquals(1, wal.replay(db, 0));
+            wal.logAdd("after");
+            wal.commit();
+        }
+        DictionaryBuilder again = new DictionaryBuilder(11);
+        try (WriteAheadLog wal = new WriteAheadLog(log, WriteAheadLog.SyncPolicy.EVERY_COMMIT)) {
+            assertEquals(2, wal.replay(again, 0));
+        }
+        assertEquals(1, again.getFrequency("kept"));
+        assertEquals(0, again.getFrequency("lost"));
+        assertEquals(1, again.getFrequency("after"));
+    }
+
+    @Test
+    public void test03_compactFoldsLogIntoSnapshot() throws Exception {
+        Path log = dir.resolve("c.wal");
+        Path base = dir.resolve("c.snap");
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        try (WriteAheadLog wal = new WriteAheadLog(log, WriteAheadLog.SyncPolicy.EVERY_COMMIT)) {
+            db.addWord("one");
+            wal.logAdd("one");
+            wal.compact(db, base);
+            assertEquals(1, wal.epoch());
+            db.addWord("two");
+            wal.logAdd("two");
+            wal.commit();
+        }
+
+        DictionaryBuilder restored = DictionaryBuilder.load(base);
+        long epoch = WriteAheadLog.snapshotEpoch(base);
+        try (WriteAheadLog wal = new WriteAheadLog(log, WriteAheadLog.SyncPolicy.EVERY_COMMIT)) {
+            assertEquals(1, wal.replay(restored, epoch));
+        }
+        assertEquals(1, restored.getFrequency("one"));
+        assertEquals(1, restored.getFrequency("two"));
+    }
+
+    @Test
+    public void test04_oldLogIsNotReplayedTwice() throws Exception {
+        Path log = dir.resolve("old.wal");
+        Path base = dir.resolve("old.snap");
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        db.addWord("x");
+        try (WriteAheadLog wal = new WriteAheadLog(log, WriteAheadLog.SyncPolicy.EVERY_COMMIT)) {
+            wal.logAdd("x");
+            wal.commit();
+        }
+        // crash after the snapshot was written but before the log was emptied
+        Path copy = dir.resolve("copy.wal");
+        java.nio.file.Files.copy(log, copy);
+        try (WriteAheadLog wal = new WriteAheadLog(log, WriteAheadLog.SyncPolicy.EVERY_COMMIT)) {
+            wal.compact(db, base);
+        }
+        java.nio.file.Files.copy(copy, log, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+
+        DictionaryBuilder restored = DictionaryBuilder.load(base);
+        try (WriteAheadLog wal = new WriteAheadLog(log, WriteAheadLog.SyncPolicy.EVERY_COMMIT)) {
+            assertEquals(0, wal.replay(restored, WriteAheadLog.snapshotEpoch(base)));
+        }
+        assertEquals(1, restored.getFrequency("x"));
+    }
+
+    @Test
+    public void test05_logIsKeptWhenTheSnapshotFails() throws Exception {
+        Path log = dir.resolve("kept.wal");
+        Path base = dir.resolve("kept.snap");
+        Files.createDirectories(base.resolve("in-the-way"));
+        // a non-empty directory: the snapshot is written, but cannot be renamed to base
+        DictionaryBuilder db = new DictionaryBuilder(11);
+        try (WriteAheadLog wal = new WriteAheadLog(log, WriteAheadLog.SyncPolicy.EVERY_COMMIT)) {
+            db.addWord("safe");
+            wal.logAdd("safe");
+            assertThrows(IOException.class, () -> wal.compact(db, base));
+            assertEquals(0, wal.epoch());
+            db.addWord("later");
+            wal.logAdd("later");
+            wal.commit();
+        }
+        assertFalse(Files.exists(dir.resolve("kept.snap.tmp")));
+
+        DictionaryBuilder restored = new DictionaryBuilder(11);
+        try (WriteAheadLog wal = new WriteAheadLog(log, WriteAheadLog.SyncPolicy.EVERY_COMMIT)) {
+            assertEquals(2, wal.replay(restored, 0));
+        }
+        assertEquals(1, restored.getFrequency("safe"));
+        assertEquals(1, restored.getFrequency("later"));
+    }
+}